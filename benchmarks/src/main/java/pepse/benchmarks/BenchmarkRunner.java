@@ -0,0 +1,34 @@
+package pepse.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the world generation benchmarks with the gc profiler attached, so every result reports
+ * its allocation rate next to its throughput.
+ */
+public final class BenchmarkRunner {
+    private static final String DEFAULT_INCLUDE = "pepse.benchmarks";
+
+    /**
+     * Not instantiable.
+     */
+    private BenchmarkRunner() {
+    }
+
+    /**
+     * Runs the benchmarks.
+     * @param args an optional JMH include pattern, every benchmark by default.
+     * @throws RunnerException if JMH fails to run a benchmark.
+     */
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(args.length > 0 ? args[0] : DEFAULT_INCLUDE)
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,213 @@
+package pepse.benchmarks;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pepse.world.Terrain;
+import pepse.world.WorldObjectPool;
+import pepse.world.chunks.ChunkCommitScheduler;
+import pepse.world.chunks.ChunkData;
+import pepse.world.chunks.ChunkDeltaStore;
+import pepse.world.chunks.ChunkGenerator;
+import pepse.world.chunks.ChunkImageCache;
+import pepse.world.chunks.ChunkWindow;
+import pepse.world.chunks.HeightmapCache;
+import pepse.world.chunks.RegrowthScheduler;
+import pepse.world.trees.Flora;
+import pepse.world.trees.Fruit;
+import pepse.world.trees.WindField;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the chunk add/cleanup cycle of PepseGameManager while the avatar walks right: each
+ * operation generates the leading chunk, creates and queues its objects, evicts the trailing chunk
+ * and flushes the commit queue. PepseGameManager needs a window to run, so the cycle is rebuilt from
+ * the same components and in the same order as its commitChunk and evictChunk: the terrain baked
+ * into one cached image or built from blocks, heights read from the heightmap cache, leaves handed
+ * to a wind group, the chunk's eaten fruits replayed from the delta store, and on eviction the
+ * fruits past the added prefix removed as well. The game's object collection is replaced by two
+ * lists that are cleared every operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChunkCycleBenchmark {
+    private static final int SEED = 5;
+    private static final Vector2 WINDOW_DIMENSIONS = new Vector2(1280, 720);
+    private static final int RESIDENT_CHUNKS = 8;
+    private static final int CHUNK_WINDOW_CAPACITY = 32;
+    private static final float COMMIT_BUDGET_MILLIS = 1f;
+    private static final int POOLED_BLOCKS_CAPACITY = 512;
+    private static final int POOLED_TREE_OBJECTS_CAPACITY = 256;
+    private static final int TERRAIN_IMAGE_CACHE_CAPACITY = 16;
+    private static final int HEIGHTMAP_CACHE_CAPACITY = 32;
+    private static final int DELTA_LOG_CAPACITY_BYTES = 64 * 1024;
+    private static final float REGROWTH_TICK_SECONDS = 0.125f;
+    private static final float REGROW_DELAY = 30f;
+
+    /** The width of a chunk in pixels. */
+    @Param({"150", "300", "600"})
+    public int chunkSize;
+
+    /** The probability of a tree standing at a column. */
+    @Param({"0.05", "0.1", "0.2"})
+    public float treeProbability;
+
+    /** Whether the terrain is baked into one image per chunk, as in the game, or built from blocks. */
+    @Param({"true", "false"})
+    public boolean bakeTerrain;
+
+    private final List<GameObject> added = new ArrayList<>();
+    private final List<GameObject> removed = new ArrayList<>();
+    private final List<Fruit> chunkFruits = new ArrayList<>();
+    private final WindField windField = new WindField();
+    private final RegrowthScheduler regrowthScheduler =
+            new RegrowthScheduler(REGROWTH_TICK_SECONDS, (fruit, slot) -> { });
+    private ChunkGenerator generator;
+    private WorldObjectPool pool;
+    private Terrain terrain;
+    private ChunkImageCache terrainImageCache;
+    private HeightmapCache heightmapCache;
+    private ChunkDeltaStore deltaStore;
+    private ChunkCommitScheduler scheduler;
+    private ChunkWindow window;
+    private int nextChunk;
+    private double time = 0;
+
+    /**
+     * Creates the world components and fills the window with its resident chunks.
+     */
+    @Setup
+    public void setup() {
+        generator = new ChunkGenerator(WINDOW_DIMENSIONS, chunkSize, treeProbability);
+        pool = new WorldObjectPool(POOLED_BLOCKS_CAPACITY, POOLED_TREE_OBJECTS_CAPACITY);
+        terrain = new Terrain(WINDOW_DIMENSIONS, SEED, true, pool);
+        terrainImageCache = new ChunkImageCache(TERRAIN_IMAGE_CACHE_CAPACITY, terrain::rasterize);
+        heightmapCache = new HeightmapCache(HEIGHTMAP_CACHE_CAPACITY, chunkSize,
+                (chunkId, heights) -> generator.sampleHeights(SEED, chunkId, heights));
+        deltaStore = new ChunkDeltaStore(DELTA_LOG_CAPACITY_BYTES, () -> time);
+        scheduler = new ChunkCommitScheduler(chunkSize, COMMIT_BUDGET_MILLIS,
+                (obj, layer) -> added.add(obj),
+                (obj, layer) -> {
+                    removed.add(obj);
+                    pool.release(obj);
+                },
+                (obj, layer) -> removed.add(obj));
+        window = new ChunkWindow(CHUNK_WINDOW_CAPACITY);
+        for (nextChunk = 0; nextChunk < RESIDENT_CHUNKS; nextChunk++) {
+            commitChunk(generator.generate(SEED, nextChunk));
+        }
+        scheduler.flush();
+    }
+
+    /**
+     * Advances the window by one chunk.
+     * @return the number of objects added and removed, so the work is not eliminated.
+     */
+    @Benchmark
+    public int advanceOneChunk() {
+        pool.recycleReleased();
+        commitChunk(generator.generate(SEED, nextChunk++));
+        evictChunk(window.lowestChunk());
+        scheduler.flush();
+        int touched = added.size() + removed.size();
+        added.clear();
+        removed.clear();
+        return touched;
+    }
+
+    /**
+     * Creates the objects of a generated chunk and queues them, as PepseGameManager.commitChunk does.
+     * @param data the generated chunk.
+     */
+    private void commitChunk(ChunkData data) {
+        int chunkId = data.chunkId();
+        ChunkWindow.ChunkSlot slot = window.claim(chunkId);
+        List<GameObject> terrainObjects = new ArrayList<>();
+        if (bakeTerrain) {
+            terrainObjects.add(Terrain.createImage(terrainImageCache.imageOf(data)));
+        } else {
+            terrainObjects.addAll(terrain.createFromData(data));
+        }
+        for (GameObject obj : terrainObjects) {
+            scheduler.scheduleAdd(chunkId, obj, Terrain.GROUND_LAYER);
+        }
+        heightmapCache.store(data);
+
+        Flora chunkFlora = new Flora((obj, layer) -> added.add(obj), (obj, layer) -> removed.add(obj),
+                heightmapCache::heightAt, Objects.hash(chunkId, SEED), Float.MAX_VALUE, pool);
+        List<GameObject> floraObjects = chunkFlora.createTrees(data.trees(), (obj, layer) -> { },
+                windField.openGroup(chunkId));
+        chunkFruits.clear();
+        for (GameObject obj : floraObjects) {
+            if (obj instanceof Fruit) {
+                Fruit fruit = (Fruit) obj;
+                int fruitIndex = chunkFruits.size();
+                fruit.setEatenListener(eaten -> onFruitEaten(slot, chunkId, fruitIndex, eaten));
+                chunkFruits.add(fruit);
+            }
+        }
+        deltaStore.forEachEatenFruit(chunkId, (fruitIndex, regrowTime) -> {
+            if (fruitIndex < chunkFruits.size()) {
+                Fruit fruit = chunkFruits.get(fruitIndex);
+                fruit.markEaten();
+                regrowthScheduler.schedule(fruit, slot, (float) (regrowTime - time));
+            }
+        });
+        for (GameObject obj : floraObjects) {
+            if (!(obj instanceof Fruit) || !((Fruit) obj).isEaten()) {
+                scheduler.scheduleAdd(chunkId, obj, Flora.layerOf(obj));
+            }
+        }
+        slot.commit(terrainObjects, floraObjects);
+    }
+
+    /**
+     * Queues the removal of a chunk's objects, as PepseGameManager.evictChunk does.
+     * @param chunkId the chunk to evict.
+     */
+    private void evictChunk(int chunkId) {
+        ChunkWindow.ChunkSlot slot = window.slot(chunkId);
+        List<GameObject> objects = slot.objects();
+        int queued = objects.size() - scheduler.cancel(chunkId);
+        for (int i = 0; i < objects.size(); i++) {
+            GameObject obj = objects.get(i);
+            if (i < queued || obj instanceof Fruit) {
+                scheduler.scheduleRemove(obj,
+                        i < slot.terrainCount() ? Terrain.GROUND_LAYER : Flora.layerOf(obj));
+            }
+        }
+        windField.closeGroup(chunkId);
+        regrowthScheduler.cancelChunk(slot);
+        window.release(chunkId);
+    }
+
+    /**
+     * Records an eaten fruit and schedules its regrowth, as PepseGameManager.onFruitEaten does.
+     * @param slot the slot of the fruit's chunk.
+     * @param chunkId the fruit's chunk.
+     * @param fruitIndex the fruit's index in its chunk.
+     * @param fruit the eaten fruit.
+     */
+    private void onFruitEaten(ChunkWindow.ChunkSlot slot, int chunkId, int fruitIndex, Fruit fruit) {
+        deltaStore.recordFruitEaten(chunkId, fruitIndex, time + REGROW_DELAY);
+        regrowthScheduler.schedule(fruit, slot, REGROW_DELAY);
+    }
+}
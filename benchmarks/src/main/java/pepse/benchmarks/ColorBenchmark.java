@@ -0,0 +1,59 @@
+package pepse.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pepse.util.ColorSupplier;
+
+import java.awt.Color;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures picking a block color: a fresh random approximation against an interned palette variant.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColorBenchmark {
+    private static final Color BASE_COLOR = new Color(212, 123, 74);
+    private static final int PALETTE_VARIANTS = 16;
+    private static final int BLOCK_SIZE = 30;
+
+    private ColorSupplier.Palette palette;
+    private int x = 0;
+
+    /**
+     * Interns the palette.
+     */
+    @Setup
+    public void setup() {
+        palette = ColorSupplier.palette(BASE_COLOR, PALETTE_VARIANTS);
+    }
+
+    /**
+     * @return a new random approximation of the base color.
+     */
+    @Benchmark
+    public Color approximateColor() {
+        return ColorSupplier.approximateColor(BASE_COLOR);
+    }
+
+    /**
+     * @return the palette color of the next block position.
+     */
+    @Benchmark
+    public Color paletteVariant() {
+        x += BLOCK_SIZE;
+        return palette.color(palette.variantAt(x, BLOCK_SIZE));
+    }
+}
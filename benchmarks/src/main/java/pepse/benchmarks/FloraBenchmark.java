@@ -0,0 +1,66 @@
+package pepse.benchmarks;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pepse.world.Terrain;
+import pepse.world.trees.Flora;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures planting the trees of one chunk with Flora.createInRange, over chunk widths and tree
+ * densities. The adder and remover do nothing, so only the planning and object creation is timed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FloraBenchmark {
+    private static final int SEED = 5;
+    private static final Vector2 WINDOW_DIMENSIONS = new Vector2(1280, 720);
+
+    /** The width of a chunk in pixels. */
+    @Param({"150", "300", "600"})
+    public int chunkSize;
+
+    /** The probability of a tree standing at a column. */
+    @Param({"0.05", "0.1", "0.2"})
+    public float treeProbability;
+
+    private Flora flora;
+    private int chunkId = 0;
+
+    /**
+     * Creates the flora on top of the game's terrain.
+     */
+    @Setup
+    public void setup() {
+        Terrain terrain = new Terrain(WINDOW_DIMENSIONS, SEED);
+        flora = new Flora((obj, layer) -> { }, (obj, layer) -> { }, terrain::groundHeightAt,
+                SEED, Float.MAX_VALUE, null, treeProbability);
+    }
+
+    /**
+     * Plants the trees of the next chunk.
+     * @return the trunks, leaves and fruits, so the work is not eliminated.
+     */
+    @Benchmark
+    public List<GameObject> createChunk() {
+        int minX = (chunkId++ & 0xFFFF) * chunkSize;
+        return flora.createInRange(minX, minX + chunkSize);
+    }
+}
@@ -0,0 +1,85 @@
+package pepse.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import pepse.util.NoiseGenerator;
+import pepse.world.Block;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures sampling the terrain noise for the columns of one chunk, one column at a time and
+ * with the batch kernel, the way Terrain samples it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NoiseBenchmark {
+    private static final int SEED = 5;
+    private static final float NOISE_FACTOR = Block.SIZE * 10;
+
+    /** The width of a chunk in pixels. */
+    @Param({"150", "300", "600"})
+    public int chunkSize;
+
+    private NoiseGenerator noise;
+    private float[] xs;
+    private float[] out;
+    private int chunkId = 0;
+
+    /**
+     * Creates the generator and the column buffers.
+     */
+    @Setup
+    public void setup() {
+        noise = new NoiseGenerator(SEED, 0);
+        xs = new float[chunkSize / Block.SIZE + 1];
+        out = new float[xs.length];
+    }
+
+    /**
+     * Samples the chunk's columns one call at a time.
+     * @param blackhole consumes the heights.
+     */
+    @Benchmark
+    public void scalarChunk(Blackhole blackhole) {
+        int startX = nextChunk() * chunkSize;
+        for (int column = 0; column < xs.length; column++) {
+            blackhole.consume(noise.noise(startX + column * Block.SIZE, NOISE_FACTOR));
+        }
+    }
+
+    /**
+     * Samples the chunk's columns in a single batch call.
+     * @return the heights, so the work is not eliminated.
+     */
+    @Benchmark
+    public float[] batchChunk() {
+        int startX = nextChunk() * chunkSize;
+        for (int column = 0; column < xs.length; column++) {
+            xs[column] = startX + column * Block.SIZE;
+        }
+        noise.noise(xs, NOISE_FACTOR, out);
+        return out;
+    }
+
+    /**
+     * @return the next chunk id, so successive calls sample different columns.
+     */
+    private int nextChunk() {
+        return chunkId++ & 0xFFFF;
+    }
+}
@@ -0,0 +1,62 @@
+package pepse.benchmarks;
+
+import danogl.util.Vector2;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pepse.world.Block;
+import pepse.world.Terrain;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures creating the terrain blocks of one chunk with Terrain.createInRange.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TerrainBenchmark {
+    private static final int SEED = 5;
+    private static final Vector2 WINDOW_DIMENSIONS = new Vector2(1280, 720);
+
+    /** The width of a chunk in pixels. */
+    @Param({"150", "300", "600"})
+    public int chunkSize;
+
+    /** Whether each column is a single merged block, as the game draws it. */
+    @Param({"true", "false"})
+    public boolean mergeColumns;
+
+    private Terrain terrain;
+    private int chunkId = 0;
+
+    /**
+     * Creates the terrain builder.
+     */
+    @Setup
+    public void setup() {
+        terrain = new Terrain(WINDOW_DIMENSIONS, SEED, mergeColumns);
+    }
+
+    /**
+     * Creates the blocks of the next chunk.
+     * @return the blocks, so the work is not eliminated.
+     */
+    @Benchmark
+    public List<Block> createChunk() {
+        int minX = (chunkId++ & 0xFFFF) * chunkSize;
+        return terrain.createInRange(minX, minX + chunkSize);
+    }
+}
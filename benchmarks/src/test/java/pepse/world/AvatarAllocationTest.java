@@ -0,0 +1,173 @@
+package pepse.world;
+
+import danogl.components.Component;
+import danogl.gui.UserInputListener;
+import danogl.util.Vector2;
+import org.junit.jupiter.api.Test;
+import pepse.headless.HeadlessEnvironment;
+import pepse.util.EnergyDisplay;
+
+import java.awt.event.KeyEvent;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that the avatar's own per-frame code allocates nothing in the steady state.
+ * Each frame moves the avatar by its velocity, as the engine's update does, and then runs its
+ * components, its ground contact and the energy display reading its energy supplier. Only the
+ * latter are measured, through the bytes the thread allocates, since the engine allocates a new
+ * position for every object that moves. The avatar starts above the ground, so the warm-up also
+ * covers falling, landing and the animation switches.
+ * The input listener is a plain stub, since a proxied one allocates on every key query.
+ */
+class AvatarAllocationTest {
+    private static final Vector2 WINDOW_DIMENSIONS = new Vector2(1280, 720);
+    private static final int FRAME_RATE = 60;
+    private static final float DELTA_TIME = 1f / FRAME_RATE;
+    private static final float GROUND_HEIGHT = Block.SIZE * 20;
+    private static final float WALL_X = Block.SIZE * 30;
+    private static final float WALL_TOP = GROUND_HEIGHT - Block.SIZE * 3;
+    private static final float AVATAR_HEIGHT = Block.SIZE * 2.5f;
+    private static final float START_ABOVE_GROUND = Block.SIZE * 2;
+    private static final float ENERGY_REFILL = 1f;
+    private static final int NO_KEY = -1;
+    private static final int WARMUP_FRAMES = 50_000;
+    private static final int MEASURED_FRAMES = 10_000;
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Test
+    void idleFrameAllocatesNothing() {
+        assertEquals(0, bytesPerFrame(NO_KEY, x -> GROUND_HEIGHT), "bytes allocated per idle frame");
+    }
+
+    @Test
+    void runningFrameAllocatesNothing() {
+        assertEquals(0, bytesPerFrame(KeyEvent.VK_RIGHT, x -> GROUND_HEIGHT),
+                "bytes allocated per running frame");
+    }
+
+    @Test
+    void frameRunningIntoWallAllocatesNothing() {
+        assertEquals(0, bytesPerFrame(KeyEvent.VK_RIGHT, x -> x < WALL_X ? GROUND_HEIGHT : WALL_TOP),
+                "bytes allocated per frame running into a wall");
+    }
+
+    /**
+     * Warms up an avatar dropped onto the ground, then measures the bytes its frames allocate.
+     * @param heldKey the key held for the whole run, or {@link #NO_KEY}.
+     * @param ground the terrain surface.
+     * @return the bytes allocated per measured frame by the avatar's own code.
+     */
+    private long bytesPerFrame(int heldKey, Avatar.HeightField ground) {
+        RecordingAvatar avatar = new RecordingAvatar(
+                new Vector2(0, GROUND_HEIGHT - AVATAR_HEIGHT - START_ABOVE_GROUND),
+                new HeldKeyListener(heldKey), ground);
+        EnergyDisplay energyDisplay = new EnergyDisplay(Vector2.ZERO, avatar.energySupplier());
+        for (int i = 0; i < WARMUP_FRAMES; i++) {
+            avatar.move();
+            avatar.frame(energyDisplay);
+        }
+        long allocated = 0;
+        for (int i = 0; i < MEASURED_FRAMES; i++) {
+            avatar.move();
+            long before = threads.getCurrentThreadAllocatedBytes();
+            avatar.frame(energyDisplay);
+            allocated += threads.getCurrentThreadAllocatedBytes() - before;
+        }
+        return allocated / MEASURED_FRAMES;
+    }
+
+    /**
+     * An avatar that keeps the components it registers, so a frame of its own code can be run
+     * apart from the engine's update.
+     */
+    private static final class RecordingAvatar extends Avatar {
+        // assigned by addComponent while Avatar's constructor runs, so it has no initializer
+        private List<Component> components;
+
+        /**
+         * @param topLeftCorner the initial top-left position.
+         * @param inputListener the held keys.
+         * @param ground the terrain surface.
+         */
+        private RecordingAvatar(Vector2 topLeftCorner, UserInputListener inputListener,
+                                HeightField ground) {
+            super(topLeftCorner, inputListener,
+                    HeadlessEnvironment.imageReader(
+                            HeadlessEnvironment.windowController(WINDOW_DIMENSIONS, FRAME_RATE)),
+                    ground);
+        }
+
+        @Override
+        public void addComponent(Component component) {
+            if (components == null) {
+                components = new ArrayList<>();
+            }
+            components.add(component);
+            super.addComponent(component);
+        }
+
+        /**
+         * Moves the avatar by its velocity over a frame, as the engine does before the avatar's
+         * own code runs, and keeps its energy from running out, which would stop the run.
+         */
+        private void move() {
+            setTopLeftCorner(getTopLeftCorner().add(getVelocity().mult(DELTA_TIME)));
+            addEnergy(ENERGY_REFILL);
+        }
+
+        /**
+         * Runs the avatar's components and ground contact, as its update does, and the display
+         * of its energy.
+         * @param energyDisplay the display reading the avatar's energy supplier.
+         */
+        private void frame(EnergyDisplay energyDisplay) {
+            for (int i = 0; i < components.size(); i++) {
+                components.get(i).update(DELTA_TIME);
+            }
+            resolveGroundContact();
+            energyDisplay.update();
+        }
+    }
+
+    /**
+     * An input listener with a single key held down.
+     */
+    private static final class HeldKeyListener implements UserInputListener {
+        private final int heldKey;
+
+        /**
+         * @param heldKey the held key, or NO_KEY for none.
+         */
+        private HeldKeyListener(int heldKey) {
+            this.heldKey = heldKey;
+        }
+
+        @Override
+        public boolean isKeyPressed(int keyCode) {
+            return keyCode == heldKey;
+        }
+
+        @Override
+        public Set<Integer> pressedKeys() {
+            return heldKey == NO_KEY ? Collections.emptySet() : Collections.singleton(heldKey);
+        }
+
+        @Override
+        public boolean isMouseButtonPressed(int button) {
+            return false;
+        }
+
+        @Override
+        public Vector2 getMousePos() {
+            return Vector2.ZERO;
+        }
+    }
+}
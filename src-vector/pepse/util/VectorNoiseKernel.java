@@ -0,0 +1,56 @@
+package pepse.util;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The batch noise kernel on the jdk.incubator.vector API, evaluating as many coordinates at once as
+ * the preferred vector shape holds floats.
+ * Lives in its own source root since it needs the incubator module: compile it with
+ * {@code --add-modules jdk.incubator.vector} and run with the same flag, and
+ * {@link NoiseGenerator} picks it up by reflection. Without it the scalar kernel is used.
+ */
+public class VectorNoiseKernel implements NoiseGenerator.BatchKernel {
+    private static final VectorSpecies<Float> FLOATS = FloatVector.SPECIES_PREFERRED;
+    private static final int CELL_MASK = 255;
+    private static final NoiseGenerator.BatchKernel TAIL_KERNEL = new NoiseGenerator.ScalarKernel();
+
+    // the lattice cells of a vector, for the gradient gather; the kernel is shared by the chunk
+    // generation workers, so each thread reuses its own buffer
+    private final ThreadLocal<int[]> cellBuffers = ThreadLocal.withInitial(() -> new int[FLOATS.length()]);
+
+    /**
+     * Fills out[i] with the noise of xs[i] for every i in [from, to), a vector of lanes at a time.
+     * The remaining coordinates are evaluated by the scalar kernel.
+     */
+    @Override
+    public void noise(float[] xs, float[] out, int from, int to, float factor, float[] gradients,
+                      float seedOffset, float[] scales, float[] weights) {
+        int[] cells = cellBuffers.get();
+        int i = from;
+        for (; i + FLOATS.length() <= to; i += FLOATS.length()) {
+            FloatVector x = FloatVector.fromArray(FLOATS, xs, i);
+            FloatVector sum = FloatVector.zero(FLOATS);
+            for (int k = 0; k < scales.length; k++) {
+                FloatVector t = x.mul(scales[k]).add(seedOffset);
+                // floor: truncate, then step down where truncation rounded a negative value up
+                FloatVector truncated = (FloatVector) t.convert(VectorOperators.F2I, 0)
+                        .convert(VectorOperators.I2F, 0);
+                VectorMask<Float> roundedUp = truncated.compare(VectorOperators.GT, t);
+                FloatVector floor = truncated.sub(1f, roundedUp);
+                FloatVector f = t.sub(floor);
+                IntVector cell = ((IntVector) floor.convert(VectorOperators.F2I, 0)).and(CELL_MASK);
+                cell.intoArray(cells, 0);
+                FloatVector g0 = FloatVector.fromArray(FLOATS, gradients, 0, cells, 0).mul(f);
+                FloatVector g1 = FloatVector.fromArray(FLOATS, gradients, 1, cells, 0).mul(f.sub(1f));
+                FloatVector u = f.mul(f).mul(f).mul(f.mul(f.mul(6f).sub(15f)).add(10f));
+                sum = g1.sub(g0).fma(u, g0).mul(weights[k]).add(sum);
+            }
+            sum.mul(factor).intoArray(out, i);
+        }
+        TAIL_KERNEL.noise(xs, out, i, to, factor, gradients, seedOffset, scales, weights);
+    }
+}
@@ -11,17 +11,38 @@ import danogl.gui.WindowController;
 import danogl.gui.rendering.Camera;
 import danogl.util.Vector2;
 
+import pepse.profiling.ChunkCommitEvent;
+import pepse.profiling.ChunkEvictEvent;
+import pepse.profiling.ChunkGenerateFailedEvent;
+import pepse.profiling.FruitEatenEvent;
+import pepse.profiling.FruitRegrownEvent;
+import pepse.profiling.WorldUpdateEvent;
 import pepse.util.EnergyDisplay;
+import pepse.util.PerfHud;
 import pepse.world.*;
+import pepse.world.daynight.DayNightClock;
 import pepse.world.daynight.Night;
 import pepse.world.daynight.Sun;
 import pepse.world.daynight.SunHalo;
+import pepse.world.chunks.ChunkCommitScheduler;
+import pepse.world.chunks.ChunkData;
+import pepse.world.chunks.ChunkDeltaStore;
+import pepse.world.chunks.ChunkGenerator;
+import pepse.world.chunks.ChunkImageCache;
+import pepse.world.chunks.ChunkWindow;
+import pepse.world.chunks.HeightmapCache;
+import pepse.world.chunks.RegrowthScheduler;
+import pepse.world.chunks.StreamingWindow;
+import pepse.world.chunks.VisibilityManager;
 import pepse.world.trees.Flora;
+import pepse.world.trees.Fruit;
+import pepse.world.trees.WindField;
 
+import java.awt.event.KeyEvent;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * The PepseGameManager class is responsible for initializing and managing
@@ -31,27 +52,67 @@ import java.util.Iterator;
 public class PepseGameManager extends GameManager {
     /**the cycle length of the day night cycle.*/
     public static final float CYCLE_LENGTH = 30f;
+    private static final float REGROWTH_TICK_SECONDS = 0.125f;
+    private static final int RAIN_CAPACITY = 1024;
+    private static final int CLOUD_COUNT = 10;
     private static final int SEED = 5;
     private static final int WORLD_BUFFER_SIZE = 800;
     private static final int WORLD_CLEANUP_DISTANCE = 1200;
+    private static final int MIN_TRAILING_BUFFER_SIZE = 400;
+    private static final float LOOKAHEAD_SECONDS = 1f;
     private static final int CHUNK_SIZE = Block.SIZE * 10;
     private static final float UPDATE_THRESHOLD = Block.SIZE * 0.5f;
     private static final Vector2 ENERGY_DISPLAY_WIDTH = Vector2.ONES.mult(20);
+    private static final Vector2 PERF_HUD_POSITION = new Vector2(20, 60);
+    private static final int PERF_HUD_KEY = KeyEvent.VK_F3;
     private static final float INITIAL_AVATAR_HEIGHT = 2.5f;
     private static final float CENTER_VAL = 2;
-    private static final String TRUNK_TAG = "trunk";
     private static final int SUN_LAYER = Layer.BACKGROUND + 10;
     private static final int HALO_LAYER = Layer.BACKGROUND + 9;
+    private static final int[] PERF_HUD_LAYERS = {Layer.BACKGROUND, HALO_LAYER, SUN_LAYER,
+            CloudField.CLOUD_LAYER, Terrain.GROUND_LAYER, Flora.TRUNK_LAYER, Flora.LEAVES_LAYER,
+            Flora.FRUIT_LAYER, Layer.FOREGROUND, Layer.UI};
+    private static final String[] PERF_HUD_LAYER_NAMES = {"sky and rain", "halo", "sun",
+            "clouds", "ground", "trunks", "leaves", "avatar and fruits", "night", "ui"};
     private static final float HALF = 2f;
+    private static final boolean MERGE_TERRAIN_COLUMNS = true;
+    private static final boolean BAKE_TERRAIN_CHUNKS = true;
+    private static final int TERRAIN_IMAGE_CACHE_CAPACITY = 16;
+    private static final int HEIGHTMAP_CACHE_CAPACITY = 32;
+    private static final int CHUNK_WINDOW_CAPACITY = 32;
+    private static final float CHUNK_COMMIT_BUDGET_MILLIS = 1f;
+    private static final int POOLED_BLOCKS_CAPACITY = 512;
+    private static final int POOLED_TREE_OBJECTS_CAPACITY = 256;
+    private static final int DELTA_LOG_CAPACITY_BYTES = 64 * 1024;
+    private static final float DORMANCY_MARGIN = CHUNK_SIZE;
+    private static final int MAX_GENERATION_ATTEMPTS = 4;
+    private static final int GENERATION_RETRY_FRAMES = 30;
+    private static final int NEVER = Integer.MAX_VALUE;
 
     private Avatar avatar;
     private Vector2 windowDimensions;
     private GameObjectCollection gameObjects;
-    private final Map<Integer, List<Block>> terrainChunks = new HashMap<>();
-    private final Map<Integer, List<GameObject>> floraChunks = new HashMap<>();
+    private final ChunkWindow chunkWindow = new ChunkWindow(CHUNK_WINDOW_CAPACITY);
     private float lastWorldUpdateX = 0;
+    private int frame = 0;
+    private long failedGenerations = 0;
+    private HeightmapCache heightmapCache;
+    private ChunkGenerator chunkGenerator;
+    private ChunkCommitScheduler commitScheduler;
+    private StreamingWindow streamingWindow;
     private Terrain terrain;
+    private WorldObjectPool worldObjectPool;
     private EnergyDisplay energyDisplay;
+    private PerfHud perfHud;
+    private ChunkDeltaStore deltaStore;
+    private ChunkImageCache terrainImageCache;
+    private final List<Fruit> chunkFruits = new ArrayList<>();
+    private final WindField windField = new WindField();
+    private final RegrowthScheduler regrowthScheduler =
+            new RegrowthScheduler(REGROWTH_TICK_SECONDS, this::regrowFruit);
+    private VisibilityManager visibilityManager;
+    private CloudField cloudField;
+    private DayNightClock dayNightClock;
 
     /**
      * Initializes the entire game world, including environment and player avatar.
@@ -73,117 +134,349 @@ public class PepseGameManager extends GameManager {
         // Create sky background
         createSky();
         // Create night and sun effect overlay
-        createNight();
-        createSun();
-        // create Cloud
-        cloudCreator();
+        GameObject night = createNight();
+        createSun(night);
         createTerrain();
+        // create the clouds
+        cloudCreator();
         // Create avatar
         createAvatar(inputListener, imageReader);
         // Set up camera to follow avatar
         setupCamera(windowController);
         // Create and attach energy display UI
         createEnergyDisplay();
+        // Create the performance overlay, shown with its key
+        createPerfHud(inputListener);
 
     }
     /**
      * Initializes the world around the avatar's starting position.
+     * The initial chunks are generated synchronously so the avatar has ground to stand on.
      */
     private void initializeInitialWorld(float avatarX) {
         float minX = avatarX - WORLD_BUFFER_SIZE;
         float maxX = avatarX + WORLD_BUFFER_SIZE;
 
-        createWorldInRange(minX, maxX);
+        int startChunk = (int) Math.floor(minX / CHUNK_SIZE);
+        int endChunk = (int) Math.floor(maxX / CHUNK_SIZE);
+        for (int chunkId = startChunk; chunkId <= endChunk; chunkId++) {
+            commitChunk(chunkWindow.claim(chunkId), chunkGenerator.generate(SEED, chunkId));
+        }
+        commitScheduler.flush();
     }
     /**
-     * Updates the infinite world based on avatar position.
+     * Updates the infinite world based on avatar position and velocity.
+     * The loaded range reaches ahead of the avatar in its running direction.
      */
-    private void updateInfiniteWorld() {
+    private void updateInfiniteWorld(float deltaTime) {
         float avatarX = avatar.getCenter().x();
-
+        streamingWindow.update(avatar.getVelocity().x(), deltaTime);
 
         if (Math.abs(avatarX - lastWorldUpdateX) > UPDATE_THRESHOLD) {
-            float minX = avatarX - WORLD_BUFFER_SIZE;
-            float maxX = avatarX + WORLD_BUFFER_SIZE;
+            WorldUpdateEvent event = new WorldUpdateEvent();
+            event.begin();
+            float minX = streamingWindow.loadMinX(avatarX);
+            float maxX = streamingWindow.loadMaxX(avatarX);
 
-            createWorldInRange(minX, maxX);
+            createWorldInRange(minX, maxX, avatarX);
 
             cleanupDistantObjects(avatarX);
 
             lastWorldUpdateX = avatarX;
+            event.end();
+            if (event.shouldCommit()) {
+                event.avatarX = avatarX;
+                event.loadMinX = minX;
+                event.loadMaxX = maxX;
+                event.trackedChunks = chunkWindow.size();
+                event.commit();
+            }
         }
+        reportMissingVisibleChunks();
     }
     /**
-     * Creates world objects (terrain and flora) in the specified range.
+     * Requests generation of the world chunks in the specified range,
+     * nearest to the avatar first and the running direction before the trailing side.
      */
-    private void createWorldInRange(float minX, float maxX) {
+    private void createWorldInRange(float minX, float maxX, float avatarX) {
         int startChunk = (int) Math.floor(minX / CHUNK_SIZE);
         int endChunk = (int) Math.floor(maxX / CHUNK_SIZE);
+        int focusChunk = (int) Math.floor(avatarX / CHUNK_SIZE);
+        int ahead = streamingWindow.direction() < 0 ? -1 : 1;
 
+        for (int step = 0; focusChunk + step <= endChunk || focusChunk - step >= startChunk; step++) {
+            int leadingChunk = focusChunk + ahead * step;
+            int trailingChunk = focusChunk - ahead * step;
+            if (leadingChunk >= startChunk && leadingChunk <= endChunk) {
+                createChunkIfNeeded(leadingChunk);
+            }
+            if (step > 0 && trailingChunk >= startChunk && trailingChunk <= endChunk) {
+                createChunkIfNeeded(trailingChunk);
+            }
+        }
+    }
+    /**
+     * Reports the chunks in the camera's view that have not finished generating yet.
+     */
+    private void reportMissingVisibleChunks() {
+        float cameraCenterX = camera().getCenter().x();
+        int startChunk = (int) Math.floor((cameraCenterX - windowDimensions.x() / HALF) / CHUNK_SIZE);
+        int endChunk = (int) Math.floor((cameraCenterX + windowDimensions.x() / HALF) / CHUNK_SIZE);
         for (int chunkId = startChunk; chunkId <= endChunk; chunkId++) {
-            createChunkIfNeeded(chunkId);
+            if (!chunkWindow.isResident(chunkId)) {
+                streamingWindow.reportMissing(chunkId);
+            }
         }
+        streamingWindow.endFrame();
     }
     /**
-     * Creates a chunk of world if it doesn't exist.
+     * Starts generating a chunk of world on the worker pool if it doesn't exist.
      */
     private void createChunkIfNeeded(int chunkId) {
-        if (!terrainChunks.containsKey(chunkId)) {
-            float chunkStartX = chunkId * CHUNK_SIZE;
-            float chunkEndX = chunkStartX + CHUNK_SIZE;
-
-
-            Terrain chunkTerrain = new Terrain(windowDimensions,
-                    java.util.Objects.hash(chunkId, SEED));
-            List<Block> terrainBlocks = chunkTerrain.createInRange((int)chunkStartX, (int)chunkEndX);
+        if (!chunkWindow.contains(chunkId)) {
+            chunkWindow.claim(chunkId).setPending(chunkGenerator.submit(SEED, chunkId));
+        }
+    }
+    /**
+     * Turns the chunks whose generation has finished into GameObjects, and submits again the
+     * chunks whose generation failed once their backoff is over.
+     */
+    private void commitGeneratedChunks() {
+        worldObjectPool.recycleReleased();
+        frame++;
+        if (chunkWindow.isEmpty()) {
+            return;
+        }
+        for (int chunkId = chunkWindow.lowestChunk(); chunkId <= chunkWindow.highestChunk(); chunkId++) {
+            ChunkWindow.ChunkSlot slot = chunkWindow.slot(chunkId);
+            if (slot == null) {
+                continue;
+            }
+            if (slot.isRetryDue(frame)) {
+                slot.setPending(chunkGenerator.submit(SEED, chunkId));
+            } else if (slot.pending() != null && slot.pending().isDone()) {
+                if (slot.pending().isCompletedExceptionally()) {
+                    recordFailedChunk(chunkId, slot);
+                } else {
+                    commitChunk(slot, slot.pending().join());
+                }
+            }
+        }
+    }
+    /**
+     * Counts and reports a chunk whose generation threw, and schedules its next attempt, twice as
+     * far off after every failure in a row. After too many failures the chunk stays missing until
+     * it is evicted, so a chunk that always fails does not keep the workers busy.
+     */
+    private void recordFailedChunk(int chunkId, ChunkWindow.ChunkSlot slot) {
+        failedGenerations++;
+        int attempt = slot.failedAttempts() + 1;
+        boolean givenUp = attempt >= MAX_GENERATION_ATTEMPTS;
+        ChunkGenerateFailedEvent event = new ChunkGenerateFailedEvent();
+        if (event.shouldCommit()) {
+            Throwable error = slot.pending().handle((data, thrown) -> thrown).join();
+            if (error instanceof CompletionException && error.getCause() != null) {
+                error = error.getCause();
+            }
+            event.chunkId = chunkId;
+            event.attempt = attempt;
+            event.givenUp = givenUp;
+            event.error = error.toString();
+            event.commit();
+        }
+        slot.recordFailure(givenUp ? NEVER : frame + (GENERATION_RETRY_FRAMES << (attempt - 1)));
+    }
+    /**
+     * Creates the terrain and flora GameObjects of a generated chunk and queues them for addition.
+     */
+    private void commitChunk(ChunkWindow.ChunkSlot slot, ChunkData data) {
+        ChunkCommitEvent event = new ChunkCommitEvent();
+        event.begin();
+        int chunkId = data.chunkId();
+        List<GameObject> terrainObjects = new ArrayList<>();
+        if (BAKE_TERRAIN_CHUNKS) {
+            terrainObjects.add(Terrain.createImage(terrainImageCache.imageOf(data)));
+        } else {
+            terrainObjects.addAll(terrain.createFromData(data));
+        }
+        for (GameObject obj : terrainObjects) {
+            commitScheduler.scheduleAdd(chunkId, obj, Terrain.GROUND_LAYER);
+        }
+        heightmapCache.store(data);
 
-            for (Block block : terrainBlocks) {
-                gameObjects.addGameObject(block, Layer.STATIC_OBJECTS);
+        Flora chunkFlora = new Flora( gameObjects()::addGameObject,
+                gameObjects()::removeGameObject,
+                heightmapCache::heightAt,
+                java.util.Objects.hash(chunkId, SEED),
+                Float.MAX_VALUE,
+                worldObjectPool);
+        List<GameObject> floraObjects = chunkFlora.createTrees(data.trees(), (obj, layer) -> { },
+                windField.openGroup(chunkId));
+        // fruits are numbered in creation order, which is the same every time the chunk is generated
+        chunkFruits.clear();
+        for (GameObject obj : floraObjects) {
+            if (obj instanceof Fruit) {
+                Fruit fruit = (Fruit) obj;
+                int fruitIndex = chunkFruits.size();
+                fruit.setEatenListener(eaten -> onFruitEaten(slot, chunkId, fruitIndex, eaten));
+                chunkFruits.add(fruit);
+            }
+        }
+        deltaStore.forEachEatenFruit(chunkId, (fruitIndex, regrowTime) -> {
+            if (fruitIndex < chunkFruits.size()) {
+                Fruit fruit = chunkFruits.get(fruitIndex);
+                fruit.markEaten();
+                regrowthScheduler.schedule(fruit, slot, (float) (regrowTime - dayNightClock.time()));
+            }
+        });
+        for (GameObject obj : floraObjects) {
+            if (!(obj instanceof Fruit) || !((Fruit) obj).isEaten()) {
+                commitScheduler.scheduleAdd(chunkId, obj, Flora.layerOf(obj));
             }
-            terrainChunks.put(chunkId, terrainBlocks);
-
-            Flora chunkFlora = new Flora( gameObjects()::addGameObject,
-                    gameObjects()::removeGameObject,
-                    chunkTerrain::groundHeightAt,
-                    java.util.Objects.hash(chunkId, SEED),
-                    Float.MAX_VALUE);
-            List<GameObject> floraObjects = chunkFlora.createInRange((int)chunkStartX, (int)chunkEndX);
-            floraChunks.put(chunkId, floraObjects);
+        }
+        slot.commit(terrainObjects, floraObjects);
+        event.end();
+        if (event.shouldCommit()) {
+            event.chunkId = chunkId;
+            event.blockCount = terrainObjects.size();
+            event.treeCount = data.trees().size();
+            event.objectCount = terrainObjects.size() + floraObjects.size();
+            event.commit();
         }
     }
     /**
-     * Removes objects that are too far from the avatar to save memory.
+     * Removes chunks that are too far from the avatar to save memory, from both edges of the window.
      */
     private void cleanupDistantObjects(float avatarX) {
-        Iterator<Map.Entry<Integer, List<Block>>> terrainIter = terrainChunks.entrySet().iterator();
-        while (terrainIter.hasNext()) {
-            Map.Entry<Integer, List<Block>> entry = terrainIter.next();
-            int chunkId = entry.getKey();
-            float chunkCenterX = chunkId * CHUNK_SIZE + CHUNK_SIZE / HALF;
-
-            if (Math.abs(chunkCenterX - avatarX) > WORLD_CLEANUP_DISTANCE) {
-                for (Block block : entry.getValue()) {
-                    gameObjects.removeGameObject(block, Layer.STATIC_OBJECTS);
-                }
-                terrainIter.remove();
-
-                List<GameObject> floraObjects = floraChunks.get(chunkId);
-                if (floraObjects != null) {
-                    for (GameObject obj : floraObjects) {
-                        if (obj.getTag() != null && obj.getTag().equals(TRUNK_TAG)) {
-                            gameObjects.removeGameObject(obj, Layer.STATIC_OBJECTS);
-                        } else {
-                            gameObjects.removeGameObject(obj, Layer.DEFAULT);
-                            gameObjects.removeGameObject(obj, Layer.DEFAULT - 1);
-                        }
-                    }
-                    floraChunks.remove(chunkId);
+        while (!chunkWindow.isEmpty() && streamingWindow.shouldEvict(chunkWindow.lowestChunk(), avatarX)) {
+            evictChunk(chunkWindow.lowestChunk());
+        }
+        while (!chunkWindow.isEmpty() && streamingWindow.shouldEvict(chunkWindow.highestChunk(), avatarX)) {
+            evictChunk(chunkWindow.highestChunk());
+        }
+    }
+    /**
+     * Evicts a single chunk. A pending generation is cancelled; for a resident chunk, additions and
+     * dormancy removals still queued are cancelled and only its objects that were actually added
+     * are queued for removal.
+     */
+    private void evictChunk(int chunkId) {
+        ChunkEvictEvent event = new ChunkEvictEvent();
+        event.begin();
+        ChunkWindow.ChunkSlot slot = chunkWindow.slot(chunkId);
+        int objectCount = slot.objects().size();
+        CompletableFuture<ChunkData> pending = slot.pending();
+        if (pending != null) {
+            pending.cancel(false);
+        } else {
+            List<GameObject> objects = slot.objects();
+            int added = objects.size() - commitScheduler.cancel(chunkId);
+            // eaten fruits are never queued and regrown ones are added directly, so fruits past the
+            // added prefix may still be in the game; removing an absent object is harmless
+            for (int i = 0; i < objects.size(); i++) {
+                GameObject obj = objects.get(i);
+                if (i < added || obj instanceof Fruit) {
+                    commitScheduler.scheduleRemove(obj, chunkLayerOf(slot, i));
                 }
             }
+            windField.closeGroup(chunkId);
+            regrowthScheduler.cancelChunk(slot);
+        }
+        chunkWindow.release(chunkId);
+        event.end();
+        if (event.shouldCommit()) {
+            event.chunkId = chunkId;
+            event.objectCount = objectCount;
+            event.cancelled = pending != null;
+            event.commit();
+        }
+    }
+    /**
+     * Queues the objects of a chunk far from the camera for removal without releasing them.
+     * Additions still queued are cancelled, so only the objects actually added are removed.
+     */
+    private void suspendChunk(int chunkId, ChunkWindow.ChunkSlot slot) {
+        List<GameObject> objects = slot.objects();
+        int added = objects.size() - commitScheduler.cancel(chunkId);
+        for (int i = 0; i < objects.size(); i++) {
+            GameObject obj = objects.get(i);
+            if (i < added || obj instanceof Fruit) {
+                commitScheduler.scheduleRemove(chunkId, obj, chunkLayerOf(slot, i));
+            }
+        }
+    }
+    /**
+     * Queues the objects of a dormant chunk that came back near the camera for addition.
+     * Removals still queued from its suspension happen first, so no object is added twice.
+     * Fruits that are still eaten stay out; leaves pick up the wind's current phase.
+     */
+    private void resumeChunk(int chunkId, ChunkWindow.ChunkSlot slot) {
+        commitScheduler.completeRemovals(chunkId);
+        List<GameObject> objects = slot.objects();
+        for (int i = 0; i < objects.size(); i++) {
+            GameObject obj = objects.get(i);
+            if (!(obj instanceof Fruit) || !((Fruit) obj).isEaten()) {
+                commitScheduler.scheduleAdd(chunkId, obj, chunkLayerOf(slot, i));
+            }
+        }
+    }
+    /**
+     * Returns the layer of a chunk's object: terrain first, then flora.
+     */
+    private static int chunkLayerOf(ChunkWindow.ChunkSlot slot, int index) {
+        return index < slot.terrainCount()
+                ? Terrain.GROUND_LAYER : Flora.layerOf(slot.objects().get(index));
+    }
+    /**
+     * Sways the leaves in the camera's view.
+     */
+    private void updateWind(float deltaTime) {
+        float cameraCenterX = camera().getCenter().x();
+        windField.update(deltaTime, cameraCenterX - windowDimensions.x() / HALF,
+                cameraCenterX + windowDimensions.x() / HALF);
+    }
+    /**
+     * Records an eaten chunk fruit, so it stays eaten if its chunk is regenerated, and schedules
+     * its regrowth a day later on the day-night clock.
+     */
+    private void onFruitEaten(ChunkWindow.ChunkSlot slot, int chunkId, int fruitIndex, Fruit fruit) {
+        float regrowDelay = dayNightClock.cycleLength();
+        deltaStore.recordFruitEaten(chunkId, fruitIndex, dayNightClock.time() + regrowDelay);
+        regrowthScheduler.schedule(fruit, slot, regrowDelay);
+        FruitEatenEvent event = new FruitEatenEvent();
+        if (event.shouldCommit()) {
+            event.chunkId = chunkId;
+            event.fruitIndex = fruitIndex;
+            event.commit();
+        }
+    }
+    /**
+     * Adds a fruit whose regrowth time has come back into the game; the scheduler has already
+     * checked its chunk was not evicted in the meantime.
+     */
+    private void regrowFruit(Fruit fruit, ChunkWindow.ChunkSlot slot) {
+        fruit.regrow();
+        // a dormant chunk adds its regrown fruits when it resumes
+        if (!slot.isDormant()) {
+            gameObjects.addGameObject(fruit, Layer.DEFAULT);
+        }
+        FruitRegrownEvent event = new FruitRegrownEvent();
+        if (event.shouldCommit()) {
+            event.x = fruit.getTopLeftCorner().x();
+            event.dormant = slot.isDormant();
+            event.commit();
         }
     }
 
 
+    /**
+     * Removes an evicted world object from the game and hands it to the pool for reuse.
+     */
+    private void removeAndRelease(GameObject obj, int layer) {
+        gameObjects.removeGameObject(obj, layer);
+        worldObjectPool.release(obj);
+    }
+
     /**
      * Creates the sky GameObject to be displayed as background.
      */
@@ -198,16 +491,26 @@ public class PepseGameManager extends GameManager {
      * */
     private void createAvatar(UserInputListener inputListener, ImageReader imageReader) {
         float avatarStartX = windowDimensions.x() / CENTER_VAL;
-        float groundHeight = terrain.groundHeightAt(avatarStartX);
+        // the initial chunks seed the heightmap cache, so the spawn height is not sampled twice
+        initializeInitialWorld(avatarStartX);
+        float groundHeight = heightmapCache.heightAt(avatarStartX);
         float avatarHeight = Block.SIZE * INITIAL_AVATAR_HEIGHT;
         float avatarY = groundHeight - avatarHeight;
         Vector2 avatarTopLeftCorner = new Vector2(avatarStartX, avatarY);
         // Create player avatar
-        avatar = new Avatar(avatarTopLeftCorner, inputListener, imageReader);
+        avatar = new Avatar(avatarTopLeftCorner, inputListener, imageReader,
+                heightmapCache::surfaceHeightAt);
         gameObjects.addGameObject(avatar, Layer.DEFAULT);
         avatar.addComponent(deltaTime -> energyDisplay.update());
-        initializeInitialWorld(avatarStartX);
-        avatar.addComponent(deltaTime -> updateInfiniteWorld());
+        avatar.addComponent(dayNightClock::update);
+        avatar.addComponent(this::updateInfiniteWorld);
+        avatar.addComponent(deltaTime -> commitGeneratedChunks());
+        avatar.addComponent(deltaTime ->
+                visibilityManager.update(chunkWindow, camera().getCenter().x()));
+        avatar.addComponent(deltaTime -> commitScheduler.drain(camera().getCenter().x()));
+        avatar.addComponent(this::updateWind);
+        avatar.addComponent(deltaTime -> regrowthScheduler.advanceTo(dayNightClock.time()));
+        avatar.addComponent(cloudField::update);
         lastWorldUpdateX = avatarStartX;
     }
     /**
@@ -222,39 +525,142 @@ public class PepseGameManager extends GameManager {
 
     }
     /**
-     * creates the sun GameObject to be displayed as background.
+     * creates the performance overlay under the energy display, hidden until its key is pressed.
+     * @param inputListener the user input listener.
      * */
-    private void createSun() {
+    private void createPerfHud(UserInputListener inputListener) {
+        perfHud = new PerfHud(PERF_HUD_POSITION, gameObjects, PERF_HUD_LAYERS, PERF_HUD_LAYER_NAMES,
+                new PerfHud.WorldStats() {
+                    @Override
+                    public int trackedChunks() {
+                        return chunkWindow.size();
+                    }
+
+                    @Override
+                    public int generatingChunks() {
+                        return countGeneratingChunks();
+                    }
+
+                    @Override
+                    public int queuedOperations() {
+                        return commitScheduler.queueDepth();
+                    }
+
+                    @Override
+                    public long overBudgetFrames() {
+                        return commitScheduler.overBudgetFrames();
+                    }
+
+                    @Override
+                    public long lateChunks() {
+                        return streamingWindow.lateChunks();
+                    }
+
+                    @Override
+                    public long lateFrames() {
+                        return streamingWindow.lateFrames();
+                    }
+
+                    @Override
+                    public float poolHitRate() {
+                        return worldObjectPool.hitRate();
+                    }
+
+                    @Override
+                    public float imageCacheHitRate() {
+                        return hitRate(terrainImageCache.hits(), terrainImageCache.misses());
+                    }
+
+                    @Override
+                    public float heightmapHitRate() {
+                        return hitRate(heightmapCache.hits(), heightmapCache.misses());
+                    }
+                },
+                () -> inputListener.isKeyPressed(PERF_HUD_KEY));
+        avatar.addComponent(deltaTime -> perfHud.update());
+    }
+    /**
+     * Counts the tracked chunks whose generation has not finished.
+     * @return the number of generating chunks.
+     */
+    private int countGeneratingChunks() {
+        if (chunkWindow.isEmpty()) {
+            return 0;
+        }
+        int generating = 0;
+        for (int chunkId = chunkWindow.lowestChunk(); chunkId <= chunkWindow.highestChunk(); chunkId++) {
+            ChunkWindow.ChunkSlot slot = chunkWindow.slot(chunkId);
+            if (slot != null && slot.pending() != null) {
+                generating++;
+            }
+        }
+        return generating;
+    }
+    /**
+     * @param hits the lookups served by a cache.
+     * @param misses the lookups the cache missed.
+     * @return the share of lookups served, in [0,1], or 0 before any lookup.
+     */
+    private static float hitRate(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 0 : (float) hits / total;
+    }
+    /**
+     * creates the sun GameObject to be displayed as background, and the day-night clock that
+     * moves it and its halo and darkens the night.
+     * */
+    private void createSun(GameObject night) {
         // Create sun and add to game
-        GameObject sun = Sun.create(windowDimensions, CYCLE_LENGTH);
+        GameObject sun = Sun.create(windowDimensions);
         gameObjects.addGameObject(sun, SUN_LAYER);
         // Create sun halo and add to game
         GameObject sunHalo = SunHalo.create(sun);
         gameObjects.addGameObject(sunHalo, HALO_LAYER);
+        dayNightClock = new DayNightClock(CYCLE_LENGTH, sun, Sun.orbitCenter(windowDimensions),
+                Sun.ORBIT_RADIUS, sunHalo, night);
     }
     /**
-     * creates the cloud GameObject to be displayed as background.
+     * creates the cloud field displayed as background, and the rain system its drops fall in,
+     * onto the terrain; the avatar drives the field's update.
      * */
     private void cloudCreator() {
-        Cloud.create(windowDimensions,
+        RainSystem rain = new RainSystem(RAIN_CAPACITY, Sky.BASIC_SKY_COLOR,
+                heightmapCache::surfaceHeightAt, () -> camera().getTopLeftCorner());
+        gameObjects.addGameObject(rain, CloudField.RAIN_LAYER);
+        cloudField = new CloudField(windowDimensions,
                 CYCLE_LENGTH,
-                gameObjects()::addGameObject,
-                gameObjects()::removeGameObject,
+                SEED,
+                CLOUD_COUNT,
+                () -> camera().getCenter().x(),
+                rain,
                 () -> avatar.isRain() && avatar.isOnGround());
+        cloudField.addClouds(gameObjects::addGameObject);
     }
     /**
-     * create the terrain.
+     * create the terrain builder, the chunk generator and the heightmap cache shared by the
+     * terrain, the flora and the avatar spawn.
      * */
     private void createTerrain() {
-        // Create terrain
-        terrain = new Terrain(windowDimensions, SEED);
+        worldObjectPool = new WorldObjectPool(POOLED_BLOCKS_CAPACITY, POOLED_TREE_OBJECTS_CAPACITY);
+        terrain = new Terrain(windowDimensions, SEED, MERGE_TERRAIN_COLUMNS, worldObjectPool);
+        chunkGenerator = new ChunkGenerator(windowDimensions, CHUNK_SIZE);
+        terrainImageCache = new ChunkImageCache(TERRAIN_IMAGE_CACHE_CAPACITY, terrain::rasterize);
+        streamingWindow = new StreamingWindow(CHUNK_SIZE, WORLD_BUFFER_SIZE, MIN_TRAILING_BUFFER_SIZE,
+                LOOKAHEAD_SECONDS, WORLD_CLEANUP_DISTANCE - WORLD_BUFFER_SIZE);
+        commitScheduler = new ChunkCommitScheduler(CHUNK_SIZE, CHUNK_COMMIT_BUDGET_MILLIS,
+                gameObjects::addGameObject, this::removeAndRelease, gameObjects::removeGameObject);
+        deltaStore = new ChunkDeltaStore(DELTA_LOG_CAPACITY_BYTES, dayNightClock::time);
+        heightmapCache = new HeightmapCache(HEIGHTMAP_CACHE_CAPACITY, CHUNK_SIZE,
+                (chunkId, heights) -> chunkGenerator.sampleHeights(SEED, chunkId, heights));
     }
     /**
      * creates the night GameObject to be displayed as background.
+     * @return the night overlay.
      * */
-    private void createNight() {
-        GameObject night = Night.create(windowDimensions, CYCLE_LENGTH);
+    private GameObject createNight() {
+        GameObject night = Night.create(windowDimensions);
         gameObjects.addGameObject(night, Layer.FOREGROUND);
+        return night;
     }
     /**
      * Sets up the camera to follow the avatar.
@@ -264,6 +670,68 @@ public class PepseGameManager extends GameManager {
                 Vector2.ZERO,
                 windowController.getWindowDimensions(),
                 windowController.getWindowDimensions()));
+        visibilityManager = new VisibilityManager(CHUNK_SIZE, windowController.getWindowDimensions().x(),
+                DORMANCY_MARGIN, new VisibilityManager.DormancyHandler() {
+                    @Override
+                    public void suspend(int chunkId, ChunkWindow.ChunkSlot slot) {
+                        suspendChunk(chunkId, slot);
+                    }
+
+                    @Override
+                    public void resume(int chunkId, ChunkWindow.ChunkSlot slot) {
+                        resumeChunk(chunkId, slot);
+                    }
+                });
+    }
+
+    /**
+     * Returns the visibility manager, which counts the live and dormant chunks and objects.
+     * @return the visibility manager.
+     */
+    public VisibilityManager visibilityManager() {
+        return visibilityManager;
+    }
+
+    /**
+     * Returns the day-night clock, which owns the game time and can run it faster or skip it.
+     * @return the day-night clock.
+     */
+    public DayNightClock dayNightClock() {
+        return dayNightClock;
+    }
+
+    /**
+     * Returns the scheduler streaming chunk objects into and out of the game, which counts the
+     * queued operations and the frames that overran its budget.
+     * @return the commit scheduler.
+     */
+    public ChunkCommitScheduler commitScheduler() {
+        return commitScheduler;
+    }
+
+    /**
+     * Returns the streaming window, which counts the chunks that were on screen before they had
+     * finished generating.
+     * @return the streaming window.
+     */
+    public StreamingWindow streamingWindow() {
+        return streamingWindow;
+    }
+
+    /**
+     * Returns the number of chunk generations that threw on a worker thread.
+     * @return the failed generation count.
+     */
+    public long failedGenerations() {
+        return failedGenerations;
+    }
+
+    /**
+     * Returns the performance overlay, hidden until its key is pressed.
+     * @return the performance overlay.
+     */
+    public PerfHud perfHud() {
+        return perfHud;
     }
 
     /**
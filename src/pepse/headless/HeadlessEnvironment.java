@@ -0,0 +1,126 @@
+package pepse.headless;
+
+import danogl.gui.ImageReader;
+import danogl.gui.UserInputListener;
+import danogl.gui.WindowController;
+import danogl.gui.rendering.ImageRenderable;
+import danogl.util.Vector2;
+
+import java.awt.image.BufferedImage;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Stand-ins for the window, image reader and input listener the engine normally gets from its
+ * window, so a GameManager can be initialized and updated without a display.
+ * The window and the listener are dynamic proxies: calls this runner has no use for return a
+ * neutral default, so the stubs keep working whatever else the engine's interfaces declare.
+ */
+public final class HeadlessEnvironment {
+    private static final String WINDOW_DIMENSIONS_METHOD = "getWindowDimensions";
+    private static final String TARGET_FRAMERATE_METHOD = "getTargetFramerate";
+    private static final String KEY_PRESSED_METHOD = "isKeyPressed";
+    private static final String MOUSE_POSITION_METHOD = "getMousePos";
+    private static final int BLANK_IMAGE_SIZE = 1;
+
+    /**
+     * Not instantiable.
+     */
+    private HeadlessEnvironment() {
+    }
+
+    /**
+     * Creates a window controller for a window that is never opened.
+     * @param windowDimensions the dimensions the game sees as its window's.
+     * @param targetFramerate the frame rate reported to the game.
+     * @return the window controller.
+     */
+    public static WindowController windowController(Vector2 windowDimensions, int targetFramerate) {
+        return (WindowController) Proxy.newProxyInstance(WindowController.class.getClassLoader(),
+                new Class<?>[]{WindowController.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case WINDOW_DIMENSIONS_METHOD:
+                            return windowDimensions;
+                        case TARGET_FRAMERATE_METHOD:
+                            return targetFramerate;
+                        default:
+                            return defaultValue(method.getReturnType());
+                    }
+                });
+    }
+
+    /**
+     * Creates an image reader that reads no files: every image is a blank pixel.
+     * @param windowController the window controller.
+     * @return the image reader.
+     */
+    public static ImageReader imageReader(WindowController windowController) {
+        ImageRenderable blank = new ImageRenderable(
+                new BufferedImage(BLANK_IMAGE_SIZE, BLANK_IMAGE_SIZE, BufferedImage.TYPE_INT_ARGB));
+        return new ImageReader(windowController) {
+            @Override
+            public ImageRenderable readImage(String imageFilePath, boolean useTransparency) {
+                return blank;
+            }
+        };
+    }
+
+    /**
+     * Creates an input listener whose keys follow a script.
+     * @param script the scripted keys.
+     * @param clock the simulated time the script is read at.
+     * @return the input listener.
+     */
+    public static UserInputListener inputListener(InputScript script, SimulationClock clock) {
+        return (UserInputListener) Proxy.newProxyInstance(UserInputListener.class.getClassLoader(),
+                new Class<?>[]{UserInputListener.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case KEY_PRESSED_METHOD:
+                            return script.isKeyPressed((Integer) args[0], clock.time());
+                        case MOUSE_POSITION_METHOD:
+                            return Vector2.ZERO;
+                        default:
+                            return defaultValue(method.getReturnType());
+                    }
+                });
+    }
+
+    /**
+     * Returns the value a stubbed method answers with.
+     * @param type the method's return type.
+     * @return false, zero, an empty set or null, according to the type.
+     */
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == float.class) {
+            return 0f;
+        }
+        if (type == double.class) {
+            return 0d;
+        }
+        if (type.isAssignableFrom(Set.class)) {
+            return Collections.emptySet();
+        }
+        return null;
+    }
+
+    /**
+     * The simulated time of a headless run.
+     */
+    @FunctionalInterface
+    public interface SimulationClock {
+        /**
+         * @return the simulated seconds since the run started.
+         */
+        float time();
+    }
+}
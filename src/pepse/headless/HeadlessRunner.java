@@ -0,0 +1,134 @@
+package pepse.headless;
+
+import danogl.GameObject;
+import danogl.gui.ImageReader;
+import danogl.gui.UserInputListener;
+import danogl.gui.WindowController;
+import danogl.util.Vector2;
+import pepse.PepseGameManager;
+import pepse.world.chunks.VisibilityManager;
+
+import java.awt.event.KeyEvent;
+
+/**
+ * Runs PepseGameManager without a window for a fixed number of fixed-timestep frames, for soak tests
+ * and benchmarks on machines with no display. The whole game logic runs as in a windowed game:
+ * world streaming and cleanup, the avatar, flora and fruit collisions; only drawing is skipped.
+ * Usage: {@code HeadlessRunner [seconds] [jumpPeriod] [reportEvery]}, by default running right for
+ * ten simulated minutes, jumping every two seconds and reporting every ten simulated seconds.
+ */
+public final class HeadlessRunner {
+    private static final Vector2 WINDOW_DIMENSIONS = new Vector2(1280, 720);
+    private static final int FRAME_RATE = 60;
+    private static final float DELTA_TIME = 1f / FRAME_RATE;
+    private static final float DEFAULT_SECONDS = 600f;
+    private static final float DEFAULT_JUMP_PERIOD = 2f;
+    private static final float DEFAULT_REPORT_EVERY = 10f;
+    private static final float JUMP_HOLD_SECONDS = 0.1f;
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final long BYTES_PER_MEGABYTE = 1024 * 1024;
+    private static final String TRUNK_TAG = "trunk";
+    private static final String LEAF_TAG = "leaf";
+    private static final String FRUIT_TAG = "fruit";
+
+    private final PepseGameManager manager;
+    private float time = 0;
+
+    /**
+     * Initializes a game whose input follows a script.
+     * @param manager the game to run.
+     * @param script the keys held over the run.
+     */
+    public HeadlessRunner(PepseGameManager manager, InputScript script) {
+        this.manager = manager;
+        WindowController windowController = HeadlessEnvironment.windowController(WINDOW_DIMENSIONS, FRAME_RATE);
+        ImageReader imageReader = HeadlessEnvironment.imageReader(windowController);
+        UserInputListener inputListener = HeadlessEnvironment.inputListener(script, () -> time);
+        // nothing in the game plays sounds
+        manager.initializeGame(imageReader, null, inputListener, windowController);
+    }
+
+    /**
+     * Advances the game by one frame.
+     */
+    public void step() {
+        manager.update(DELTA_TIME);
+        time += DELTA_TIME;
+    }
+
+    /**
+     * @return the simulated seconds since the run started.
+     */
+    public float time() {
+        return time;
+    }
+
+    /**
+     * Runs the game for a number of simulated seconds, printing a report line periodically.
+     * @param seconds the simulated seconds to run.
+     * @param reportEvery the simulated seconds between reports.
+     */
+    public void run(float seconds, float reportEvery) {
+        int frames = Math.round(seconds * FRAME_RATE);
+        int framesPerReport = Math.max(1, Math.round(reportEvery * FRAME_RATE));
+        long reportStart = System.nanoTime();
+        for (int frame = 1; frame <= frames; frame++) {
+            step();
+            if (frame % framesPerReport == 0 || frame == frames) {
+                long now = System.nanoTime();
+                int reportFrames = frame % framesPerReport == 0 ? framesPerReport : frame % framesPerReport;
+                report(frame, reportFrames / ((now - reportStart) / NANOS_PER_SECOND));
+                reportStart = now;
+            }
+        }
+    }
+
+    /**
+     * Prints the frame rate, the resident objects, the streaming counters and the heap usage.
+     * @param frame the number of frames run.
+     * @param framesPerSecond the frames simulated per wall-clock second since the last report.
+     */
+    private void report(int frame, double framesPerSecond) {
+        int objects = 0;
+        int trunks = 0;
+        int leaves = 0;
+        int fruits = 0;
+        for (GameObject obj : manager.gameObjects()) {
+            objects++;
+            if (TRUNK_TAG.equals(obj.getTag())) {
+                trunks++;
+            } else if (LEAF_TAG.equals(obj.getTag())) {
+                leaves++;
+            } else if (FRUIT_TAG.equals(obj.getTag())) {
+                fruits++;
+            }
+        }
+        VisibilityManager visibility = manager.visibilityManager();
+        Runtime runtime = Runtime.getRuntime();
+        long usedHeap = (runtime.totalMemory() - runtime.freeMemory()) / BYTES_PER_MEGABYTE;
+        System.out.printf("t=%7.1fs frames=%7d fps=%9.1f objects=%6d trunks=%5d leaves=%6d fruits=%5d "
+                        + "day=%d time of day=%.2f "
+                        + "chunks live/dormant=%d/%d chunk objects live/dormant=%d/%d failed generations=%d "
+                        + "queued=%d over budget frames=%d late chunks/frames=%d/%d heap=%5dMB/%dMB%n",
+                time, frame, framesPerSecond, objects, trunks, leaves, fruits,
+                manager.dayNightClock().day(), manager.dayNightClock().timeOfDay(),
+                visibility.liveChunks(), visibility.dormantChunks(),
+                visibility.liveObjects(), visibility.dormantObjects(), manager.failedGenerations(),
+                manager.commitScheduler().queueDepth(), manager.commitScheduler().overBudgetFrames(),
+                manager.streamingWindow().lateChunks(), manager.streamingWindow().lateFrames(),
+                usedHeap, runtime.totalMemory() / BYTES_PER_MEGABYTE);
+    }
+
+    /**
+     * Runs the game headless: the avatar runs right and jumps periodically.
+     * @param args optional simulated seconds, jump period and report period, in seconds.
+     */
+    public static void main(String[] args) {
+        float seconds = args.length > 0 ? Float.parseFloat(args[0]) : DEFAULT_SECONDS;
+        float jumpPeriod = args.length > 1 ? Float.parseFloat(args[1]) : DEFAULT_JUMP_PERIOD;
+        float reportEvery = args.length > 2 ? Float.parseFloat(args[2]) : DEFAULT_REPORT_EVERY;
+        InputScript script = InputScript.hold(KeyEvent.VK_RIGHT)
+                .and(InputScript.tapEvery(KeyEvent.VK_SPACE, jumpPeriod, JUMP_HOLD_SECONDS));
+        new HeadlessRunner(new PepseGameManager(), script).run(seconds, reportEvery);
+    }
+}
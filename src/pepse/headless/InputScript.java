@@ -0,0 +1,48 @@
+package pepse.headless;
+
+/**
+ * Scripted keyboard input for a headless run: which keys are held at each moment of the simulation.
+ * Scripts are combined with {@link #and}, e.g. running right while jumping every two seconds:
+ * <pre>
+ * InputScript.hold(KeyEvent.VK_RIGHT).and(InputScript.tapEvery(KeyEvent.VK_SPACE, 2f, 0.1f))
+ * </pre>
+ */
+@FunctionalInterface
+public interface InputScript {
+    /**
+     * Returns whether a key is held.
+     * @param keyCode the key, as in java.awt.event.KeyEvent.
+     * @param time the simulated time in seconds since the run started.
+     * @return true if the key is held at that time.
+     */
+    boolean isKeyPressed(int keyCode, float time);
+
+    /**
+     * Returns a script that holds a key for the whole run.
+     * @param keyCode the key to hold.
+     * @return the script.
+     */
+    static InputScript hold(int keyCode) {
+        return (key, time) -> key == keyCode;
+    }
+
+    /**
+     * Returns a script that presses a key periodically, starting at the beginning of the run.
+     * @param keyCode the key to press.
+     * @param period the seconds between presses.
+     * @param holdSeconds how long each press is held.
+     * @return the script.
+     */
+    static InputScript tapEvery(int keyCode, float period, float holdSeconds) {
+        return (key, time) -> key == keyCode && time % period < holdSeconds;
+    }
+
+    /**
+     * Returns a script that holds the keys of both scripts.
+     * @param other the script to combine with this one.
+     * @return the combined script.
+     */
+    default InputScript and(InputScript other) {
+        return (key, time) -> isKeyPressed(key, time) || other.isKeyPressed(key, time);
+    }
+}
@@ -0,0 +1,222 @@
+package pepse.headless;
+
+import danogl.GameObject;
+import danogl.components.CoordinateSpace;
+import danogl.components.Transition;
+import danogl.gui.rendering.Camera;
+import danogl.gui.rendering.RectangleRenderable;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+import pepse.world.RainSystem;
+import pepse.world.Sky;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+/**
+ * Finds the most raindrops that can fall at once while frames still take no more than 1/60 of a
+ * second, for raindrops made the old way, a GameObject with a fade transition each, and for the
+ * {@link RainSystem}. A frame updates and draws the drops into an off-screen image of the
+ * window's size, as the engine would; the drop count is doubled until a frame takes too long,
+ * then bisected.
+ * Both counts are sustained: drops spawn near the top of the window, and old drops whose fade
+ * ended and rain system drops that reached the ground at the bottom of the window are replaced by
+ * new ones every frame, so both fall the whole way on screen.
+ * Arguments, all optional: the largest drop count to try, and the frames measured per count.
+ */
+public final class RainProbe {
+    private static final int WINDOW_WIDTH = 1280;
+    private static final int WINDOW_HEIGHT = 720;
+    private static final Vector2 WINDOW_DIMENSIONS = new Vector2(WINDOW_WIDTH, WINDOW_HEIGHT);
+    private static final float DELTA_TIME = 1f / 60;
+    private static final double FRAME_BUDGET_NANOS = 1e9 / 60;
+    private static final int FIRST_COUNT = 256;
+    private static final int DEFAULT_MAX_COUNT = 1 << 20;
+    private static final int DEFAULT_FRAMES = 120;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int BISECTION_STEPS = 4;
+    private static final Vector2 LEGACY_DROP_SIZE = new Vector2(10, 10);
+    private static final Renderable LEGACY_DROP_RENDERABLE =
+            new RectangleRenderable(new Color(100, 100, 255));
+    private static final float LEGACY_RAIN_SPEED = 200f;
+    private static final float LEGACY_FADE_TIME = 3f;
+    private static final float SPAWN_BAND_HEIGHT =
+            WINDOW_HEIGHT - LEGACY_RAIN_SPEED * LEGACY_FADE_TIME;
+
+    private final Random random = new Random(0);
+    private final Camera camera = new Camera(null, Vector2.ZERO, WINDOW_DIMENSIONS, WINDOW_DIMENSIONS);
+    private final BufferedImage frame =
+            new BufferedImage(WINDOW_WIDTH, WINDOW_HEIGHT, BufferedImage.TYPE_INT_RGB);
+    private final Graphics2D graphics = frame.createGraphics();
+
+    /**
+     * Not instantiable from outside; see {@link #main}.
+     */
+    private RainProbe() {
+    }
+
+    /**
+     * Measures a frame with the given number of old-style drops.
+     * @param count the number of drops.
+     * @param frames the frames to average over.
+     * @return the mean frame time in nanoseconds.
+     */
+    private double legacyFrameNanos(int count, int frames) {
+        GameObject[] drops = new GameObject[count];
+        boolean[] faded = new boolean[count];
+        for (int i = 0; i < count; i++) {
+            drops[i] = createLegacyDrop(randomScreenPoint(), faded, i);
+        }
+        return meanFrameNanos(frames, () -> {
+            for (GameObject drop : drops) {
+                drop.update(DELTA_TIME);
+            }
+            for (int i = 0; i < count; i++) {
+                if (faded[i]) {
+                    faded[i] = false;
+                    drops[i] = createLegacyDrop(randomScreenPoint(), faded, i);
+                }
+                drops[i].render(graphics, camera);
+            }
+        });
+    }
+
+    /**
+     * @return a random point high enough in the window for a drop to stay on screen until it
+     *         fades, as drops spawned from the clouds did.
+     */
+    private Vector2 randomScreenPoint() {
+        return new Vector2(random.nextFloat() * WINDOW_WIDTH, random.nextFloat() * SPAWN_BAND_HEIGHT);
+    }
+
+    /**
+     * Builds a drop as the clouds used to: a GameObject falling at a fixed speed, whose fade
+     * transition removed it after a few seconds; here it flags itself to be replaced instead.
+     * @param center the drop's center.
+     * @param faded the flags of the drops whose fade ended.
+     * @param index the drop's flag.
+     * @return the drop.
+     */
+    private static GameObject createLegacyDrop(Vector2 center, boolean[] faded, int index) {
+        GameObject drop = new GameObject(center, LEGACY_DROP_SIZE, LEGACY_DROP_RENDERABLE);
+        drop.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
+        drop.transform().setVelocity(new Vector2(0, LEGACY_RAIN_SPEED));
+        new Transition<>(drop,
+                drop.renderer()::setOpaqueness,
+                1f,
+                0f,
+                Transition.LINEAR_INTERPOLATOR_FLOAT,
+                LEGACY_FADE_TIME,
+                Transition.TransitionType.TRANSITION_ONCE,
+                () -> faded[index] = true);
+        return drop;
+    }
+
+    /**
+     * Measures a frame with the given number of rain system drops, refilling the drops that
+     * reached the ground at the bottom of the window.
+     * @param count the number of drops.
+     * @param frames the frames to average over.
+     * @return the mean frame time in nanoseconds.
+     */
+    private double rainSystemFrameNanos(int count, int frames) {
+        RainSystem rain = new RainSystem(count, Sky.BASIC_SKY_COLOR, x -> WINDOW_HEIGHT,
+                () -> Vector2.ZERO);
+        return meanFrameNanos(frames, () -> {
+            while (rain.dropCount() < count) {
+                Vector2 point = randomScreenPoint();
+                rain.spawn(point.x(), point.y());
+            }
+            rain.update(DELTA_TIME);
+            rain.render(graphics, camera);
+        });
+    }
+
+    /**
+     * Runs a frame a few times to warm it up, then times it.
+     * @param frames the frames to average over.
+     * @param frame the frame.
+     * @return the mean frame time in nanoseconds.
+     */
+    private static double meanFrameNanos(int frames, Runnable frame) {
+        for (int i = 0; i < frames * WARMUP_ROUNDS; i++) {
+            frame.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < frames; i++) {
+            frame.run();
+        }
+        return (double) (System.nanoTime() - start) / frames;
+    }
+
+    /**
+     * Doubles the drop count until a frame exceeds the budget, then bisects between the last two
+     * counts, reporting each count tried.
+     * @param name the variant's name, for the report.
+     * @param maxCount the largest count to try.
+     * @param measure measures a frame with a given drop count.
+     * @return the largest count found within the budget, or 0 if even the first exceeded it.
+     */
+    private static int maxSustainedCount(String name, int maxCount, CountMeasure measure) {
+        int best = 0;
+        int over = 0;
+        for (int count = FIRST_COUNT; count <= maxCount; count *= 2) {
+            if (!withinBudget(name, count, measure)) {
+                over = count;
+                break;
+            }
+            best = count;
+        }
+        for (int step = 0; best > 0 && over > 0 && step < BISECTION_STEPS; step++) {
+            int count = (best + over) / 2;
+            if (withinBudget(name, count, measure)) {
+                best = count;
+            } else {
+                over = count;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Times a frame at a drop count and reports it.
+     * @param name the variant's name, for the report.
+     * @param count the number of drops.
+     * @param measure measures a frame with a given drop count.
+     * @return whether the frame took no more than the budget.
+     */
+    private static boolean withinBudget(String name, int count, CountMeasure measure) {
+        double nanos = measure.frameNanos(count);
+        System.out.printf("%-12s %8d drops: %7.2f ms/frame%n", name, count, nanos / 1e6);
+        return nanos <= FRAME_BUDGET_NANOS;
+    }
+
+    /**
+     * Functional interface for timing a frame at a drop count.
+     */
+    @FunctionalInterface
+    private interface CountMeasure {
+        /**
+         * @param count the number of drops.
+         * @return the mean frame time in nanoseconds.
+         */
+        double frameNanos(int count);
+    }
+
+    /**
+     * Runs the probe and prints the largest drop count each variant sustains at 60 FPS.
+     * @param args optionally the largest drop count to try and the frames measured per count.
+     */
+    public static void main(String[] args) {
+        int maxCount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_MAX_COUNT;
+        int frames = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_FRAMES;
+        RainProbe probe = new RainProbe();
+        int legacy = maxSustainedCount("gameobjects", maxCount,
+                count -> probe.legacyFrameNanos(count, frames));
+        int system = maxSustainedCount("rain system", maxCount,
+                count -> probe.rainSystemFrameNanos(count, frames));
+        System.out.printf("max drops at 60 FPS: gameobjects %d, rain system %d%n", legacy, system);
+    }
+}
@@ -0,0 +1,36 @@
+package pepse.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * A flight recorder event for turning a generated chunk into GameObjects on the game thread: its
+ * terrain, its trees and their fruits. Its duration is the time the frame spent on it.
+ */
+@Name("pepse.ChunkCommit")
+@Label("Chunk Commit")
+@Category({"Pepse", "World Streaming"})
+@Description("Creating a generated chunk's terrain and tree objects on the game thread")
+@StackTrace(false)
+@Threshold("1 ms")
+public class ChunkCommitEvent extends jdk.jfr.Event {
+    /** The committed chunk. */
+    @Label("Chunk Id")
+    public int chunkId;
+
+    /** The number of terrain objects created: one baked image, or one per block. */
+    @Label("Block Count")
+    public int blockCount;
+
+    /** The number of trees created. */
+    @Label("Tree Count")
+    public int treeCount;
+
+    /** The number of objects created, terrain and flora. */
+    @Label("Object Count")
+    public int objectCount;
+}
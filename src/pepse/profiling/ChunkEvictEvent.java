@@ -0,0 +1,32 @@
+package pepse.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * A flight recorder event for evicting a chunk that fell out of the streaming window: cancelling
+ * its generation, or queueing its objects for removal. Its duration is the eviction's.
+ */
+@Name("pepse.ChunkEvict")
+@Label("Chunk Evict")
+@Category({"Pepse", "World Streaming"})
+@Description("Evicting a chunk that fell out of the streaming window")
+@StackTrace(false)
+@Threshold("1 ms")
+public class ChunkEvictEvent extends jdk.jfr.Event {
+    /** The evicted chunk. */
+    @Label("Chunk Id")
+    public int chunkId;
+
+    /** The number of the chunk's objects, 0 when its generation had not finished. */
+    @Label("Object Count")
+    public int objectCount;
+
+    /** Whether the chunk's generation was cancelled before it finished. */
+    @Label("Cancelled")
+    public boolean cancelled;
+}
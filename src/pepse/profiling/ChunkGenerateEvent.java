@@ -0,0 +1,32 @@
+package pepse.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * A flight recorder event for generating a chunk's data: sampling its heights and planning its
+ * trees, usually on a worker thread. Its duration is the generation's.
+ */
+@Name("pepse.ChunkGenerate")
+@Label("Chunk Generate")
+@Category({"Pepse", "World Streaming"})
+@Description("Sampling a chunk's terrain heights and planning its trees")
+@StackTrace(false)
+@Threshold("1 ms")
+public class ChunkGenerateEvent extends jdk.jfr.Event {
+    /** The generated chunk. */
+    @Label("Chunk Id")
+    public int chunkId;
+
+    /** The number of terrain columns sampled. */
+    @Label("Column Count")
+    public int columnCount;
+
+    /** The number of trees planned. */
+    @Label("Tree Count")
+    public int treeCount;
+}
@@ -0,0 +1,34 @@
+package pepse.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A flight recorder event for a chunk whose generation threw on a worker thread. The chunk is
+ * generated again after a backoff, until it has failed too many times.
+ */
+@Name("pepse.ChunkGenerateFailed")
+@Label("Chunk Generate Failed")
+@Category({"Pepse", "World Streaming"})
+@Description("Generating a chunk threw on a worker thread")
+@StackTrace(false)
+public class ChunkGenerateFailedEvent extends jdk.jfr.Event {
+    /** The chunk that failed. */
+    @Label("Chunk Id")
+    public int chunkId;
+
+    /** How many times in a row the chunk's generation failed, this one included. */
+    @Label("Attempt")
+    public int attempt;
+
+    /** Whether the chunk is no longer generated again until it is evicted. */
+    @Label("Given Up")
+    public boolean givenUp;
+
+    /** The exception the generation threw. */
+    @Label("Error")
+    public String error;
+}
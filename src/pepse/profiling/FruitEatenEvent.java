@@ -0,0 +1,25 @@
+package pepse.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A flight recorder event for the avatar eating a chunk's fruit.
+ */
+@Name("pepse.FruitEaten")
+@Label("Fruit Eaten")
+@Category({"Pepse", "Fruits"})
+@Description("The avatar ate a fruit, which regrows a day later")
+@StackTrace(false)
+public class FruitEatenEvent extends jdk.jfr.Event {
+    /** The chunk of the fruit. */
+    @Label("Chunk Id")
+    public int chunkId;
+
+    /** The fruit's index in its chunk, in creation order. */
+    @Label("Fruit Index")
+    public int fruitIndex;
+}
@@ -0,0 +1,25 @@
+package pepse.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A flight recorder event for an eaten fruit regrowing.
+ */
+@Name("pepse.FruitRegrown")
+@Label("Fruit Regrown")
+@Category({"Pepse", "Fruits"})
+@Description("An eaten fruit regrew on its tree")
+@StackTrace(false)
+public class FruitRegrownEvent extends jdk.jfr.Event {
+    /** The x-coordinate of the fruit. */
+    @Label("X")
+    public float x;
+
+    /** Whether the fruit's chunk is dormant, so the fruit is added back when it resumes. */
+    @Label("Dormant")
+    public boolean dormant;
+}
@@ -0,0 +1,37 @@
+package pepse.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * A flight recorder event for a world update, triggered when the avatar moved far enough: the
+ * chunks entering the streaming window are requested and those leaving it evicted. Its duration
+ * covers both; the evictions also record their own events.
+ */
+@Name("pepse.WorldUpdate")
+@Label("World Update")
+@Category({"Pepse", "World Streaming"})
+@Description("Requesting the chunks entering the streaming window and evicting those leaving it")
+@StackTrace(false)
+@Threshold("1 ms")
+public class WorldUpdateEvent extends jdk.jfr.Event {
+    /** The avatar's x-coordinate that triggered the update. */
+    @Label("Avatar X")
+    public float avatarX;
+
+    /** The left edge of the range of world loaded. */
+    @Label("Load Min X")
+    public float loadMinX;
+
+    /** The right edge of the range of world loaded. */
+    @Label("Load Max X")
+    public float loadMaxX;
+
+    /** The number of chunks tracked after the update. */
+    @Label("Tracked Chunks")
+    public int trackedChunks;
+}
@@ -1,6 +1,11 @@
 package pepse.util;
 
+import danogl.gui.rendering.RectangleRenderable;
+import danogl.gui.rendering.Renderable;
+
 import java.awt.*;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Random;
 
 /**
@@ -10,6 +15,7 @@ import java.util.Random;
 public final class ColorSupplier {
     private static final int DEFAULT_COLOR_DELTA = 10;
     private final static Random random = new Random();
+    private static final Map<Long, Palette> palettes = new HashMap<>();
 
     /**
      * Returns a color similar to baseColor, with a default delta.
@@ -63,6 +69,40 @@ public final class ColorSupplier {
                 randomChannelInRange(baseColor.getBlue()-colorDelta, baseColor.getBlue()+colorDelta));
     }
 
+    /**
+     * Returns a color similar to baseColor, with a default delta, drawn from the given generator.
+     * The same generator state always yields the same color.
+     *
+     * @param baseColor A color that we wish to approximate.
+     * @param random The random generator to draw from.
+     * @return A color similar to baseColor.
+     */
+    public static Color approximateColor(Color baseColor, Random random) {
+        return new Color(
+                randomChannelInRange(baseColor.getRed()-DEFAULT_COLOR_DELTA,
+                        baseColor.getRed()+DEFAULT_COLOR_DELTA, random),
+                randomChannelInRange(baseColor.getGreen()-DEFAULT_COLOR_DELTA,
+                        baseColor.getGreen()+DEFAULT_COLOR_DELTA, random),
+                randomChannelInRange(baseColor.getBlue()-DEFAULT_COLOR_DELTA,
+                        baseColor.getBlue()+DEFAULT_COLOR_DELTA, random));
+    }
+
+    /**
+     * Returns the palette of variants around baseColor, with a default delta.
+     * Palettes are interned: every call with the same base color and variant count returns the
+     * same palette, so its renderables are shared by everything drawn in that color.
+     *
+     * @param baseColor A color that we wish to approximate.
+     * @param variants The number of variants in the palette.
+     * @return The palette.
+     */
+    public static Palette palette(Color baseColor, int variants) {
+        long key = ((long) baseColor.getRGB() << Integer.SIZE) | variants;
+        synchronized (palettes) {
+            return palettes.computeIfAbsent(key, k -> new Palette(baseColor, variants));
+        }
+    }
+
     /**
      * This method generates a random value for a color channel within the given range [min, max].
      *
@@ -71,7 +111,84 @@ public final class ColorSupplier {
      * @return A random number in the range [min, max], clipped to [0,255].
      */
     private static int randomChannelInRange(int min, int max) {
+        return randomChannelInRange(min, max, random);
+    }
+
+    /**
+     * This method generates a random value for a color channel within the given range [min, max].
+     *
+     * @param min The lower bound of the given range.
+     * @param max The upper bound of the given range.
+     * @param random The random generator to draw from.
+     * @return A random number in the range [min, max], clipped to [0,255].
+     */
+    private static int randomChannelInRange(int min, int max, Random random) {
         int channel = random.nextInt(max-min+1) + min;
         return Math.min(255, Math.max(channel, 0));
     }
+
+    /**
+     * A fixed set of colors similar to a base color, each with a shared renderable.
+     * Which variant a world position gets is a hash of the position, so the same position always
+     * gets the same color, and a whole world draws with as many renderables as the palette has variants.
+     */
+    public static final class Palette {
+        private final Color[] colors;
+        private final Renderable[] renderables;
+        private final int salt;
+
+        /**
+         * @param baseColor A color that we wish to approximate.
+         * @param variants The number of variants.
+         */
+        private Palette(Color baseColor, int variants) {
+            // seeded by the base color, so the palette is the same on every run
+            Random paletteRandom = new Random(baseColor.getRGB());
+            colors = new Color[variants];
+            renderables = new Renderable[variants];
+            for (int i = 0; i < variants; i++) {
+                colors[i] = approximateColor(baseColor, paletteRandom);
+                renderables[i] = new RectangleRenderable(colors[i]);
+            }
+            salt = baseColor.getRGB();
+        }
+
+        /**
+         * @return The number of variants.
+         */
+        public int size() {
+            return colors.length;
+        }
+
+        /**
+         * Picks the variant of a world position.
+         *
+         * @param x The x coordinate.
+         * @param y The y coordinate.
+         * @return A variant index in [0, size()).
+         */
+        public int variantAt(int x, int y) {
+            int hash = x * 0x9E3779B9 ^ y * 0x85EBCA6B ^ salt;
+            hash ^= hash >>> 16;
+            hash *= 0x7FEB352D;
+            hash ^= hash >>> 15;
+            return Math.floorMod(hash, colors.length);
+        }
+
+        /**
+         * @param variant A variant index.
+         * @return The variant's color.
+         */
+        public Color color(int variant) {
+            return colors[variant];
+        }
+
+        /**
+         * @param variant A variant index.
+         * @return The variant's shared rectangle renderable.
+         */
+        public Renderable renderable(int variant) {
+            return renderables[variant];
+        }
+    }
 }
@@ -6,10 +6,10 @@ import danogl.gui.rendering.TextRenderable;
 import danogl.util.Vector2;
 
 import java.awt.*;
-import java.util.function.Supplier;
 
 /**
  * Displays the avatar's current energy as a percentage in black text.
+ * The text is only rebuilt when the displayed percentage changes.
  */
 public class EnergyDisplay {
     private static final String INITIAL_VALUE = "100%";
@@ -18,7 +18,8 @@ public class EnergyDisplay {
     private static final String PERCENTAGE = "%";
     private final GameObject energyText;
     private final TextRenderable textRenderable;
-    private final Supplier<Float> energySupplier;
+    private final FloatSupplier energySupplier;
+    private int displayedPercent = Math.round(MAX_ENERGY);
 
 
     /**
@@ -27,7 +28,7 @@ public class EnergyDisplay {
      * @param position        Where to display the percentage text
      * @param energySupplier  Function that supplies the avatar's energy
      */
-    public EnergyDisplay(Vector2 position, Supplier<Float> energySupplier) {
+    public EnergyDisplay(Vector2 position, FloatSupplier energySupplier) {
         this.energySupplier = energySupplier;
         this.textRenderable = new TextRenderable(INITIAL_VALUE);
         this.textRenderable.setColor(Color.BLACK);
@@ -40,9 +41,12 @@ public class EnergyDisplay {
      * Updates the energy percentage text.
      */
     public void update() {
-        float energy = energySupplier.get();
+        float energy = energySupplier.getAsFloat();
         int percent = Math.round((energy / MAX_ENERGY) * MAX_ENERGY);
-        textRenderable.setString(percent + PERCENTAGE);
+        if (percent != displayedPercent) {
+            displayedPercent = percent;
+            textRenderable.setString(percent + PERCENTAGE);
+        }
     }
 
     /**
@@ -52,4 +56,15 @@ public class EnergyDisplay {
     public GameObject getGameObject() {
         return energyText;
     }
+
+    /**
+     * Supplies a float without boxing it.
+     */
+    @FunctionalInterface
+    public interface FloatSupplier {
+        /**
+         * @return the current value.
+         */
+        float getAsFloat();
+    }
 }
@@ -0,0 +1,231 @@
+package pepse.util;
+
+/**
+ * A bounded least-recently-used cache keyed by primitive ints.
+ * Keys are never boxed: entries live in parallel arrays linked into a recency list,
+ * and an open-addressing table maps each key to its entry.
+ * @param <V> the type of the cached values.
+ */
+public class IntLruCache<V> {
+    private static final int NONE = -1;
+    private static final int EMPTY = 0;
+    private static final int TABLE_LOAD_FACTOR = 2;
+    private static final int HASH_MULTIPLIER = 0x9E3779B9;
+
+    private final int capacity;
+    private final int[] keys;
+    private final Object[] values;
+    private final int[] prev;
+    private final int[] next;
+    private final int[] table;
+    private final int tableMask;
+    private int head = NONE;
+    private int tail = NONE;
+    private int size = 0;
+    private long hits = 0;
+    private long misses = 0;
+
+    /**
+     * Constructs an empty cache.
+     * @param capacity the maximal number of entries kept before the least recently used is evicted.
+     */
+    public IntLruCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.keys = new int[capacity];
+        this.values = new Object[capacity];
+        this.prev = new int[capacity];
+        this.next = new int[capacity];
+        int tableSize = Integer.highestOneBit(capacity * TABLE_LOAD_FACTOR - 1) << 1;
+        this.table = new int[tableSize];
+        this.tableMask = tableSize - 1;
+    }
+
+    /**
+     * Returns the value cached for the key and marks it as most recently used.
+     * @param key the key to look up.
+     * @return the cached value, or null if the key is not cached.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int entry = findEntry(key);
+        if (entry == NONE) {
+            misses++;
+            return null;
+        }
+        hits++;
+        moveToFront(entry);
+        return (V) values[entry];
+    }
+
+    /**
+     * Caches a value for the key as the most recently used entry.
+     * When the cache is full the least recently used entry is evicted.
+     * @param key the key.
+     * @param value the value to cache.
+     * @return the evicted value so the caller may recycle it, or null if nothing was evicted.
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        int entry = findEntry(key);
+        if (entry != NONE) {
+            V replaced = (V) values[entry];
+            values[entry] = value;
+            moveToFront(entry);
+            return replaced;
+        }
+        V evicted = null;
+        if (size < capacity) {
+            entry = size++;
+        } else {
+            entry = tail;
+            evicted = (V) values[entry];
+            unlink(entry);
+            removeFromTable(keys[entry]);
+        }
+        keys[entry] = key;
+        values[entry] = value;
+        linkFirst(entry);
+        insertIntoTable(key, entry);
+        return evicted;
+    }
+
+    /**
+     * Returns whether the key is cached, without touching its recency or the counters.
+     * @param key the key to look up.
+     * @return true if the key is cached.
+     */
+    public boolean contains(int key) {
+        return findEntry(key) != NONE;
+    }
+
+    /**
+     * Returns the number of cached entries.
+     * @return the number of cached entries.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of lookups that found a cached value.
+     * @return the hit count.
+     */
+    public long hits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of lookups that found nothing.
+     * @return the miss count.
+     */
+    public long misses() {
+        return misses;
+    }
+
+    /**
+     * Finds the entry index holding the key.
+     * @param key the key.
+     * @return the entry index, or NONE.
+     */
+    private int findEntry(int key) {
+        for (int i = indexFor(key); table[i] != EMPTY; i = (i + 1) & tableMask) {
+            int entry = table[i] - 1;
+            if (keys[entry] == key) {
+                return entry;
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Inserts a key into the lookup table.
+     * @param key the key.
+     * @param entry the entry index holding the key.
+     */
+    private void insertIntoTable(int key, int entry) {
+        int i = indexFor(key);
+        while (table[i] != EMPTY) {
+            i = (i + 1) & tableMask;
+        }
+        table[i] = entry + 1;
+    }
+
+    /**
+     * Removes a key from the lookup table, shifting back the following probe run
+     * so later lookups never stop at the hole.
+     * @param key the key.
+     */
+    private void removeFromTable(int key) {
+        int hole = indexFor(key);
+        while (keys[table[hole] - 1] != key) {
+            hole = (hole + 1) & tableMask;
+        }
+        int i = (hole + 1) & tableMask;
+        while (table[i] != EMPTY) {
+            int home = indexFor(keys[table[i] - 1]);
+            boolean canMove = hole <= i ? (home <= hole || home > i) : (home <= hole && home > i);
+            if (canMove) {
+                table[hole] = table[i];
+                hole = i;
+            }
+            i = (i + 1) & tableMask;
+        }
+        table[hole] = EMPTY;
+    }
+
+    /**
+     * Returns the home index of a key in the lookup table.
+     * @param key the key.
+     * @return the table index.
+     */
+    private int indexFor(int key) {
+        return (key * HASH_MULTIPLIER >>> 16) & tableMask;
+    }
+
+    /**
+     * Moves an entry to the head of the recency list.
+     * @param entry the entry index.
+     */
+    private void moveToFront(int entry) {
+        if (entry != head) {
+            unlink(entry);
+            linkFirst(entry);
+        }
+    }
+
+    /**
+     * Links an entry in as the head of the recency list.
+     * @param entry the entry index.
+     */
+    private void linkFirst(int entry) {
+        prev[entry] = NONE;
+        next[entry] = head;
+        if (head != NONE) {
+            prev[head] = entry;
+        }
+        head = entry;
+        if (tail == NONE) {
+            tail = entry;
+        }
+    }
+
+    /**
+     * Unlinks an entry from the recency list.
+     * @param entry the entry index.
+     */
+    private void unlink(int entry) {
+        if (prev[entry] != NONE) {
+            next[prev[entry]] = next[entry];
+        } else {
+            head = next[entry];
+        }
+        if (next[entry] != NONE) {
+            prev[next[entry]] = prev[entry];
+        } else {
+            tail = prev[entry];
+        }
+    }
+}
@@ -1,11 +1,39 @@
 package pepse.util;
 
+import java.util.Random;
+
+/**
+ * Perlin noise sampled along a single axis.
+ * Since y and z are always 0 and the seed is usually integral, the 3D Perlin lookup reduces to a
+ * 1D one: with an integral seed the noise is evaluated by a 1D kernel that only needs one gradient
+ * coefficient per lattice cell. {@link #noise(float[], float, float[])} evaluates a whole batch of
+ * x coordinates in float, optionally with the jdk.incubator.vector kernel when it is on the class
+ * path. Batch results match {@link #noise(double, double)} within {@link #BATCH_TOLERANCE} per unit
+ * of factor for |x| up to 10^5 and |seed| up to 10^8, which is 0.06 pixels for the terrain's factor,
+ * the error coming from rounding x / currentPoint to float. The scalar noise is unchanged.
+ */
 public class NoiseGenerator {
+    /** The maximal difference between batch and scalar noise, per unit of factor. */
+    public static final double BATCH_TOLERANCE = 2e-4;
+    private static final String VECTOR_KERNEL_CLASS = "pepse.util.VectorNoiseKernel";
+    private static final BatchKernel BATCH_KERNEL = loadBatchKernel();
+    // the gradient of a lattice hash along x, when y and z are 0
+    private static final float[] GRADIENT_BY_HASH =
+            {1, -1, 1, -1, 1, -1, 1, -1, 0, 0, 0, 0, 1, 0, -1, 0};
+    private static final int CELLS = 256;
+    private static final int CELL_MASK = CELLS - 1;
+
     private double seed;
     private long default_size;
     private int[] p;
     private int[] permutation;
     private double startPoint;
+    private final boolean seededPermutation;
+    private boolean integralSeed;
+    private float[] gradients;
+    private float seedOffset;
+    private float[] octaveScales;
+    private float[] octaveWeights;
 
     /**
      * The constructor of the NoiseGenerator class.
@@ -20,8 +48,22 @@ public class NoiseGenerator {
      *
      */
     public NoiseGenerator(double seed, int startPoint) {
+        this(seed, startPoint, false);
+    }
+
+    /**
+     * The constructor of the NoiseGenerator class, optionally shuffling the permutation table
+     * with the seed. A shuffled table gives unrelated noise for every seed instead of shifted copies
+     * of the same noise, but is not compatible with the classic table.
+     *
+     * @param seed the seed of the noise.
+     * @param startPoint is a relative point that the noise will be generated from.
+     * @param seededPermutation whether to shuffle the permutation table with the seed.
+     */
+    public NoiseGenerator(double seed, int startPoint, boolean seededPermutation) {
         this.seed = seed;
         this.startPoint = startPoint;
+        this.seededPermutation = seededPermutation;
         init();
     }
 
@@ -50,11 +92,49 @@ public class NoiseGenerator {
                 215, 61, 156, 180};
         this.default_size = 35;
 
+        if (seededPermutation) {
+            Random random = new Random(Double.doubleToLongBits(seed));
+            for (int i = permutation.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int swap = permutation[i];
+                permutation[i] = permutation[j];
+                permutation[j] = swap;
+            }
+        }
+
         // Populate it
         for (int i = 0; i < 256; i++) {
             p[256 + i] = p[i] = permutation[i];
         }
 
+        initKernel();
+    }
+
+    /*
+     * Precomputes the 1D kernel: with y = seed integral and z = 0, the hash of lattice cell X is
+     * p[p[p[X] + Y]], and its gradient only depends on that hash.
+     */
+    private void initKernel() {
+        integralSeed = seed == Math.floor(seed) && !Double.isInfinite(seed);
+        int Y = (int) Math.floor(seed) & CELL_MASK;
+        gradients = new float[CELLS + 1];
+        for (int X = 0; X <= CELLS; X++) {
+            gradients[X] = GRADIENT_BY_HASH[p[p[p[X] + Y]] & 15];
+        }
+        // smoothNoise adds the seed to x twice; only its value modulo the lattice period matters
+        seedOffset = (float) (((2 * seed) % CELLS + CELLS) % CELLS);
+
+        int octaves = 0;
+        for (double currentPoint = startPoint; currentPoint >= 1; currentPoint /= 2.0) {
+            octaves++;
+        }
+        octaveScales = new float[octaves];
+        octaveWeights = new float[octaves];
+        double currentPoint = startPoint;
+        for (int i = 0; i < octaves; i++, currentPoint /= 2.0) {
+            octaveScales[i] = (float) (1 / currentPoint);
+            octaveWeights[i] = (float) (currentPoint / startPoint);
+        }
     }
 
     /**
@@ -76,13 +156,64 @@ public class NoiseGenerator {
         double currentPoint = startPoint;
 
         while (currentPoint >= 1) {
-            value += smoothNoise((x / currentPoint), 0, 0) * currentPoint;
+            value += (integralSeed ? smoothNoise1D(x / currentPoint) : smoothNoise((x / currentPoint), 0, 0))
+                    * currentPoint;
             currentPoint /= 2.0;
         }
 
         return value * factor / startPoint;
     }
 
+    /**
+     * Fills out[i] with the noise at xs[i], as {@link #noise(double, double)} would, in one call.
+     * Evaluated in float, so results differ from the scalar noise by at most
+     * {@link #BATCH_TOLERANCE} times the factor. out may be the same array as xs.
+     *
+     * @param xs the x coordinates to receive noise for.
+     * @param factor describes how large the noise should be.
+     * @param out receives the noise of every x; at least as long as xs.
+     */
+    public void noise(float[] xs, float factor, float[] out) {
+        if (!integralSeed) {
+            for (int i = 0; i < xs.length; i++) {
+                out[i] = (float) noise(xs[i], factor);
+            }
+            return;
+        }
+        BATCH_KERNEL.noise(xs, out, 0, xs.length, factor, gradients, seedOffset, octaveScales, octaveWeights);
+    }
+
+    /**
+     * @return whether batches are evaluated by the jdk.incubator.vector kernel.
+     */
+    public static boolean isVectorized() {
+        return !(BATCH_KERNEL instanceof ScalarKernel);
+    }
+
+    /*
+     * smoothNoise(x, 0, 0) for an integral seed: y's and z's fade curves are 0, so only the two
+     * x corners of the lattice cell contribute.
+     */
+    private double smoothNoise1D(double x) {
+        x += this.seed;
+        x += this.seed;
+
+        int X = (int) Math.floor(x) & CELL_MASK;
+        x -= Math.floor(x);
+
+        double u = fade(x);
+        return lerp(u, gradients[X] * x, gradients[X + 1] * (x - 1));
+    }
+
+    private static BatchKernel loadBatchKernel() {
+        try {
+            return (BatchKernel) Class.forName(VECTOR_KERNEL_CLASS).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // the vector kernel is compiled separately and needs --add-modules jdk.incubator.vector
+            return new ScalarKernel();
+        }
+    }
+
 
     private double smoothNoise(double x, double y, double z) {
         // Offset each coordinate by the seed value
@@ -133,4 +264,53 @@ public class NoiseGenerator {
                 v = h < 4 ? y : h == 12 || h == 14 ? x : z;
         return ((h & 1) == 0 ? u : -u) + ((h & 2) == 0 ? v : -v);
     }
+
+    /**
+     * Evaluates the 1D noise kernel over a range of a batch.
+     * The lattice cell of a coordinate t is floor(t) mod 256, and its noise is
+     * lerp(fade(f), gradients[cell] * f, gradients[cell + 1] * (f - 1)) with f = t - floor(t).
+     */
+    public interface BatchKernel {
+        /**
+         * Fills out[i] with factor * sum over octaves k of weights[k] * noise1D(xs[i] * scales[k] + seedOffset)
+         * for every i in [from, to).
+         *
+         * @param xs the x coordinates.
+         * @param out receives the noise; may be xs.
+         * @param from the first index.
+         * @param to the index after the last.
+         * @param factor the noise factor.
+         * @param gradients the gradient of every lattice cell, 257 entries.
+         * @param seedOffset the offset added to every coordinate.
+         * @param scales the coordinate scale of every octave.
+         * @param weights the weight of every octave.
+         */
+        void noise(float[] xs, float[] out, int from, int to, float factor, float[] gradients,
+                   float seedOffset, float[] scales, float[] weights);
+    }
+
+    /**
+     * The plain Java batch kernel, one coordinate at a time.
+     */
+    public static final class ScalarKernel implements BatchKernel {
+        @Override
+        public void noise(float[] xs, float[] out, int from, int to, float factor, float[] gradients,
+                          float seedOffset, float[] scales, float[] weights) {
+            for (int i = from; i < to; i++) {
+                float x = xs[i];
+                float sum = 0;
+                for (int k = 0; k < scales.length; k++) {
+                    float t = x * scales[k] + seedOffset;
+                    float floor = (float) Math.floor(t);
+                    float f = t - floor;
+                    int cell = (int) floor & CELL_MASK;
+                    float g0 = gradients[cell] * f;
+                    float g1 = gradients[cell + 1] * (f - 1);
+                    float u = f * f * f * (f * (f * 6 - 15) + 10);
+                    sum += (g0 + u * (g1 - g0)) * weights[k];
+                }
+                out[i] = sum * factor;
+            }
+        }
+    }
 }
@@ -0,0 +1,368 @@
+package pepse.util;
+
+import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
+import danogl.collisions.Layer;
+import danogl.components.CoordinateSpace;
+import danogl.gui.rendering.TextRenderable;
+import danogl.util.Vector2;
+
+import java.awt.*;
+import java.util.Arrays;
+
+/**
+ * An overlay of performance figures under the energy display, shown and hidden with a key: the
+ * frame rate, the median and 99th percentile frame times, the chunks in memory and the generation
+ * work waiting, the chunks that were on screen before they were generated, the pool and cache hit rates, the heap in use and the GameObjects in each layer.
+ * Frame times are recorded every frame; the figures are recomputed twice a second, and only while
+ * the overlay is shown. Each line is formatted into its own reusable character buffer, and its
+ * text is only replaced when the characters changed, so a steady game allocates nothing for it.
+ */
+public class PerfHud {
+    private static final Vector2 LINE_SIZE = new Vector2(400, 20);
+    private static final int LINE_CAPACITY = 80;
+    private static final int FRAME_SAMPLES = 120;
+    private static final long REFRESH_NANOS = 500_000_000L;
+    private static final float NANOS_PER_MILLI = 1e6f;
+    private static final float NANOS_PER_SECOND = 1e9f;
+    private static final float MEDIAN = 0.5f;
+    private static final float P99 = 0.99f;
+    private static final float PERCENT = 100f;
+    private static final long BYTES_PER_MEGABYTE = 1024 * 1024;
+    private static final int STAT_LINES = 5;
+
+    private final GameObjectCollection gameObjects;
+    private final int[] layers;
+    private final String[] layerNames;
+    private final WorldStats stats;
+    private final ToggleKey toggleKey;
+    private final TextLine[] lines;
+    private final float[] frameMillis = new float[FRAME_SAMPLES];
+    private final float[] sortedMillis = new float[FRAME_SAMPLES];
+    private final Runtime runtime = Runtime.getRuntime();
+    private int frameSamples = 0;
+    private int nextFrame = 0;
+    private long lastFrameNanos = -1;
+    private long lastRefreshNanos = -1;
+    private int framesSinceRefresh = 0;
+    private boolean visible = false;
+    private boolean keyWasPressed = false;
+
+    /**
+     * Supplies the world's figures shown by the overlay.
+     */
+    public interface WorldStats {
+        /**
+         * @return the number of chunks tracked, whether generated or still generating.
+         */
+        int trackedChunks();
+
+        /**
+         * @return the number of chunks whose generation has not finished.
+         */
+        int generatingChunks();
+
+        /**
+         * @return the number of GameObject additions and removals waiting to be committed.
+         */
+        int queuedOperations();
+
+        /**
+         * @return the number of frames whose queued additions and removals overran their budget.
+         */
+        long overBudgetFrames();
+
+        /**
+         * @return how many times a chunk was on screen before it had finished generating.
+         */
+        long lateChunks();
+
+        /**
+         * @return how many frames showed at least one chunk that had not finished generating.
+         */
+        long lateFrames();
+
+        /**
+         * @return the share of world objects served by the object pool, in [0,1].
+         */
+        float poolHitRate();
+
+        /**
+         * @return the share of chunk images found in their cache, in [0,1].
+         */
+        float imageCacheHitRate();
+
+        /**
+         * @return the share of heightmaps found in their cache, in [0,1].
+         */
+        float heightmapHitRate();
+    }
+
+    /**
+     * Tells whether the key showing and hiding the overlay is held.
+     */
+    @FunctionalInterface
+    public interface ToggleKey {
+        /**
+         * @return whether the key is held down.
+         */
+        boolean isPressed();
+    }
+
+    /**
+     * Constructs the overlay, hidden until its key is pressed.
+     *
+     * @param position     where to display the first line; the others follow below it
+     * @param gameObjects  the game's objects, counted per layer and shown in the UI layer
+     * @param layers       the layers whose objects are counted
+     * @param layerNames   the names the layers are shown with, in the same order
+     * @param stats        the world's figures
+     * @param toggleKey    the key showing and hiding the overlay
+     */
+    public PerfHud(Vector2 position, GameObjectCollection gameObjects, int[] layers,
+                   String[] layerNames, WorldStats stats, ToggleKey toggleKey) {
+        this.gameObjects = gameObjects;
+        this.layers = layers;
+        this.layerNames = layerNames;
+        this.stats = stats;
+        this.toggleKey = toggleKey;
+        lines = new TextLine[STAT_LINES + layers.length];
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = new TextLine(position.add(new Vector2(0, LINE_SIZE.y() * i)));
+        }
+    }
+
+    /**
+     * Records the time since the last frame, shows or hides the overlay when its key is pressed,
+     * and refreshes the figures when the overlay is shown and enough time passed.
+     */
+    public void update() {
+        long now = System.nanoTime();
+        if (lastFrameNanos >= 0) {
+            frameMillis[nextFrame] = (now - lastFrameNanos) / NANOS_PER_MILLI;
+            nextFrame = (nextFrame + 1) % FRAME_SAMPLES;
+            frameSamples = Math.min(frameSamples + 1, FRAME_SAMPLES);
+            framesSinceRefresh++;
+        }
+        lastFrameNanos = now;
+        boolean keyPressed = toggleKey.isPressed();
+        if (keyPressed && !keyWasPressed) {
+            setVisible(!visible);
+        }
+        keyWasPressed = keyPressed;
+        if (lastRefreshNanos < 0) {
+            lastRefreshNanos = now;
+        }
+        if (now - lastRefreshNanos >= REFRESH_NANOS) {
+            if (visible) {
+                refresh((now - lastRefreshNanos) / NANOS_PER_SECOND);
+            }
+            lastRefreshNanos = now;
+            framesSinceRefresh = 0;
+        }
+    }
+
+    /**
+     * Shows or hides the overlay, by adding its lines to the UI layer or removing them.
+     *
+     * @param visible whether to show the overlay
+     */
+    public void setVisible(boolean visible) {
+        if (visible == this.visible) {
+            return;
+        }
+        this.visible = visible;
+        for (TextLine line : lines) {
+            if (visible) {
+                gameObjects.addGameObject(line.gameObject, Layer.UI);
+            } else {
+                gameObjects.removeGameObject(line.gameObject, Layer.UI);
+            }
+        }
+    }
+
+    /**
+     * @return whether the overlay is shown.
+     */
+    public boolean isVisible() {
+        return visible;
+    }
+
+    /**
+     * Recomputes every figure and updates the lines whose text changed.
+     *
+     * @param elapsedSeconds the time since the last refresh
+     */
+    private void refresh(float elapsedSeconds) {
+        System.arraycopy(frameMillis, 0, sortedMillis, 0, frameSamples);
+        Arrays.sort(sortedMillis, 0, frameSamples);
+        TextLine line = lines[0].clear();
+        line.append("FPS ").append(Math.round(framesSinceRefresh / elapsedSeconds));
+        line.append("  frame p50 ").appendTenths(percentile(MEDIAN));
+        line.append(" ms  p99 ").appendTenths(percentile(P99)).append(" ms").publish();
+
+        int generating = stats.generatingChunks();
+        line = lines[1].clear();
+        line.append("chunks ").append(stats.trackedChunks() - generating).append(" resident  ");
+        line.append(generating).append(" generating  ");
+        line.append(stats.queuedOperations()).append(" queued  ");
+        line.append(stats.overBudgetFrames()).append(" frames over budget").publish();
+
+        line = lines[2].clear();
+        line.append("late chunks ").append(stats.lateChunks());
+        line.append(" in ").append(stats.lateFrames()).append(" frames").publish();
+
+        line = lines[3].clear();
+        line.append("hit rate pool ").appendPercent(stats.poolHitRate());
+        line.append("  images ").appendPercent(stats.imageCacheHitRate());
+        line.append("  heights ").appendPercent(stats.heightmapHitRate()).publish();
+
+        long used = runtime.totalMemory() - runtime.freeMemory();
+        line = lines[4].clear();
+        line.append("heap ").append(used / BYTES_PER_MEGABYTE);
+        line.append(" / ").append(runtime.maxMemory() / BYTES_PER_MEGABYTE).append(" MB").publish();
+
+        for (int i = 0; i < layers.length; i++) {
+            int count = 0;
+            for (GameObject ignored : gameObjects.objectsInLayer(layers[i])) {
+                count++;
+            }
+            lines[STAT_LINES + i].clear().append(layerNames[i]).append(" ").append(count).publish();
+        }
+    }
+
+    /**
+     * Reads a percentile of the recorded frame times, which must be sorted.
+     *
+     * @param fraction the percentile, as a fraction in [0,1]
+     * @return the frame time at the percentile, in milliseconds, or 0 before any frame
+     */
+    private float percentile(float fraction) {
+        if (frameSamples == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(fraction * frameSamples) - 1;
+        return sortedMillis[Math.max(0, index)];
+    }
+
+    /**
+     * A single line of text, formatted into a reusable buffer; its renderable's text is replaced
+     * only when the formatted characters differ from those shown.
+     */
+    private static final class TextLine {
+        private final GameObject gameObject;
+        private final TextRenderable renderable;
+        private final char[] buffer = new char[LINE_CAPACITY];
+        private final char[] shown = new char[LINE_CAPACITY];
+        private int length = 0;
+        private int shownLength = 0;
+
+        /**
+         * Constructs an empty line.
+         *
+         * @param position where to display the line
+         */
+        private TextLine(Vector2 position) {
+            renderable = new TextRenderable("");
+            renderable.setColor(Color.BLACK);
+            gameObject = new GameObject(position, LINE_SIZE, renderable);
+            gameObject.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
+        }
+
+        /**
+         * Empties the buffer.
+         *
+         * @return this line
+         */
+        private TextLine clear() {
+            length = 0;
+            return this;
+        }
+
+        /**
+         * Appends text; characters beyond the line's capacity are dropped.
+         *
+         * @param text the text
+         * @return this line
+         */
+        private TextLine append(String text) {
+            for (int i = 0; i < text.length(); i++) {
+                appendChar(text.charAt(i));
+            }
+            return this;
+        }
+
+        /**
+         * Appends a whole number in decimal.
+         *
+         * @param value the number
+         * @return this line
+         */
+        private TextLine append(long value) {
+            if (value < 0) {
+                appendChar('-');
+                value = -value;
+            }
+            int start = length;
+            do {
+                appendChar((char) ('0' + value % 10));
+                value /= 10;
+            } while (value > 0);
+            // the digits were written lowest first
+            for (int i = start, j = length - 1; i < j; i++, j--) {
+                char digit = buffer[i];
+                buffer[i] = buffer[j];
+                buffer[j] = digit;
+            }
+            return this;
+        }
+
+        /**
+         * Appends a number rounded to one decimal place.
+         *
+         * @param value the number
+         * @return this line
+         */
+        private TextLine appendTenths(float value) {
+            long tenths = Math.round(value * 10);
+            append(tenths / 10);
+            appendChar('.');
+            return append(Math.abs(tenths % 10));
+        }
+
+        /**
+         * Appends a share as a whole percentage.
+         *
+         * @param share the share, in [0,1]
+         * @return this line
+         */
+        private TextLine appendPercent(float share) {
+            append(Math.round(share * PERCENT));
+            appendChar('%');
+            return this;
+        }
+
+        /**
+         * Appends a character, unless the buffer is full.
+         *
+         * @param c the character
+         */
+        private void appendChar(char c) {
+            if (length < LINE_CAPACITY) {
+                buffer[length++] = c;
+            }
+        }
+
+        /**
+         * Shows the buffer's text, if it differs from the text shown.
+         */
+        private void publish() {
+            if (length == shownLength && Arrays.equals(buffer, 0, length, shown, 0, length)) {
+                return;
+            }
+            System.arraycopy(buffer, 0, shown, 0, length);
+            shownLength = length;
+            renderable.setString(new String(buffer, 0, length));
+        }
+    }
+}
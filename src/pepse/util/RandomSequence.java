@@ -0,0 +1,113 @@
+package pepse.util;
+
+/**
+ * An allocation-free replacement for {@code new Random(seed)} in the world generation hot paths.
+ * It runs the same linear congruential generator as java.util.Random, so a sequence reseeded with
+ * a seed draws exactly the values {@code new Random(seed)} would, and a single instance can be
+ * reseeded for every tree instead of allocating a Random each time.
+ * {@link #firstFloat} and the {@code hash} helpers are stateless, for values that only ever need
+ * the first draw of a seed that used to be built with Objects.hash.
+ */
+public final class RandomSequence {
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long INCREMENT = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+    private static final int STATE_BITS = 48;
+    private static final int FLOAT_BITS = 24;
+    private static final float FLOAT_UNIT = 1f / (1 << FLOAT_BITS);
+    private static final int INT_BITS = 31;
+    private static final int HASH_MULTIPLIER = 31;
+
+    private long state;
+
+    /**
+     * Restarts the sequence, as if it were {@code new Random(seed)}.
+     * @param seed the seed.
+     * @return this sequence.
+     */
+    public RandomSequence reseed(long seed) {
+        state = scramble(seed);
+        return this;
+    }
+
+    /**
+     * @return the next float in [0,1), as Random.nextFloat.
+     */
+    public float nextFloat() {
+        return next(FLOAT_BITS) * FLOAT_UNIT;
+    }
+
+    /**
+     * @return the next boolean, as Random.nextBoolean.
+     */
+    public boolean nextBoolean() {
+        return next(1) != 0;
+    }
+
+    /**
+     * Returns the next int in [0,bound), as Random.nextInt(bound).
+     * @param bound the exclusive upper bound, positive.
+     * @return the next int.
+     */
+    public int nextInt(int bound) {
+        int r = next(INT_BITS);
+        int m = bound - 1;
+        if ((bound & m) == 0) {
+            return (int) ((bound * (long) r) >> INT_BITS);
+        }
+        for (int u = r; u - (r = u % bound) + m < 0; u = next(INT_BITS)) {
+            // rejects the values that would bias the result, like Random does
+        }
+        return r;
+    }
+
+    /**
+     * Returns the first float of a seed's sequence, i.e. {@code new Random(seed).nextFloat()},
+     * without any state.
+     * @param seed the seed.
+     * @return the float in [0,1).
+     */
+    public static float firstFloat(long seed) {
+        long next = (scramble(seed) * MULTIPLIER + INCREMENT) & MASK;
+        return (int) (next >>> (STATE_BITS - FLOAT_BITS)) * FLOAT_UNIT;
+    }
+
+    /**
+     * Combines two ints as {@code Objects.hash(a, b)} does, without boxing them.
+     * @param a the first value.
+     * @param b the second value.
+     * @return the hash.
+     */
+    public static int hash(int a, int b) {
+        return (HASH_MULTIPLIER + a) * HASH_MULTIPLIER + b;
+    }
+
+    /**
+     * Combines three ints as {@code Objects.hash(a, b, c)} does, without boxing them.
+     * @param a the first value.
+     * @param b the second value.
+     * @param c the third value.
+     * @return the hash.
+     */
+    public static int hash(int a, int b, int c) {
+        return hash(a, b) * HASH_MULTIPLIER + c;
+    }
+
+    /**
+     * Advances the generator.
+     * @param bits the number of random bits wanted, at most 32.
+     * @return the next bits.
+     */
+    private int next(int bits) {
+        state = (state * MULTIPLIER + INCREMENT) & MASK;
+        return (int) (state >>> (STATE_BITS - bits));
+    }
+
+    /**
+     * @param seed the seed.
+     * @return the generator's initial state for the seed, as Random's constructor computes it.
+     */
+    private static long scramble(long seed) {
+        return (seed ^ MULTIPLIER) & MASK;
+    }
+}
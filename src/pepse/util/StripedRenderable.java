@@ -0,0 +1,54 @@
+package pepse.util;
+
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+
+import java.awt.*;
+
+/**
+ * A renderable made of equal-height horizontal stripes, each with its own color.
+ * Lets a single tall GameObject look like a stack of separately colored blocks.
+ * Stripes are drawn axis-aligned; rotation and flipping are ignored.
+ */
+public class StripedRenderable implements Renderable {
+    private static final float FULLY_OPAQUE = 1f;
+    private final Color[] stripeColors;
+
+    /**
+     * Constructs a striped renderable.
+     * @param stripeColors the stripe colors from top to bottom.
+     */
+    public StripedRenderable(Color[] stripeColors) {
+        this.stripeColors = stripeColors;
+    }
+
+    /**
+     * Draws the stripes over the given area, top to bottom.
+     * @param g the graphics context.
+     * @param topLeftCorner the top-left corner of the drawn area, in screen coordinates.
+     * @param dimensions the size of the drawn area.
+     * @param degreesCounterClockwise ignored.
+     * @param isFlippedHorizontally ignored.
+     * @param isFlippedVertically ignored.
+     * @param opaqueness the opaqueness of the drawing, in [0,1].
+     */
+    @Override
+    public void render(Graphics2D g, Vector2 topLeftCorner, Vector2 dimensions,
+                       double degreesCounterClockwise, boolean isFlippedHorizontally,
+                       boolean isFlippedVertically, double opaqueness) {
+        Composite previousComposite = g.getComposite();
+        if (opaqueness < FULLY_OPAQUE) {
+            g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, (float) opaqueness));
+        }
+        int x = Math.round(topLeftCorner.x());
+        int width = Math.round(dimensions.x());
+        float stripeHeight = dimensions.y() / stripeColors.length;
+        for (int i = 0; i < stripeColors.length; i++) {
+            int top = Math.round(topLeftCorner.y() + i * stripeHeight);
+            int bottom = Math.round(topLeftCorner.y() + (i + 1) * stripeHeight);
+            g.setColor(stripeColors[i]);
+            g.fillRect(x, top, width, bottom - top);
+        }
+        g.setComposite(previousComposite);
+    }
+}
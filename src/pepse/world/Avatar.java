@@ -6,21 +6,25 @@ import danogl.gui.ImageReader;
 import danogl.gui.UserInputListener;
 import danogl.gui.rendering.AnimationRenderable;
 import danogl.util.Vector2;
+import pepse.util.EnergyDisplay;
 
 import javax.crypto.SecretKey;
 import java.awt.event.KeyEvent;
-import java.util.function.Supplier;
 
 /**
  * The Avatar class represents the player character in the game.
  * It supports movement, jumping, animation transitions, and energy mechanics.
+ * Ground contact is resolved against a height field of the terrain surface instead of engine
+ * collisions with ground blocks: each frame only the two or three columns under the avatar are
+ * looked up. Tree trunks still collide through the engine.
+ * The per-frame state is kept in primitive fields and the engine's velocity and position are only
+ * set when they change, so a steady run, walk or rest allocates nothing in the avatar's own code.
  */
 public class Avatar extends GameObject {
     // ==== Constants ====
     private static final String TAG = "avatar";
     private static final String TRUNK_TAG = "trunk";
-    private static final String GROUND_TAG = "ground";
-    private static final float INITIAL_MASS = 1f;
+    private static final float STEP_TOLERANCE = 0.5f;
     private static final Vector2 AVATAR_SIZE =
             new Vector2(Block.SIZE * 1.5f, Block.SIZE * 2.5f);
     private static final float AVATAR_VELOCITY = 430;
@@ -52,6 +56,7 @@ public class Avatar extends GameObject {
 
     private AnimationRenderable currentRenderer;
     private final UserInputListener inputListener;
+    private final HeightField heightField;
 
     private float energy = MAX_ENERGY;
     private boolean onGround = false;
@@ -60,15 +65,24 @@ public class Avatar extends GameObject {
     private boolean jumpKeyHeldWithInsufficientEnergy = false;
     private int framesSinceJump = 100;
     private int framesSinceLastSuccessfulJump = 100;
-    private Vector2 lastPosition;
+    private boolean restingOnTerrain = false;
+    private float lastX;
+    // the last position ground contact moved the avatar to, reused while it keeps pushing there
+    private Vector2 correctedTopLeft = Vector2.ZERO;
 
     /**
      * Constructs the Avatar object with animations and input logic.
+     * @param topLeftCorner the initial top-left position.
+     * @param inputListener the user input listener.
+     * @param imageReader the image reader.
+     * @param heightField the terrain surface the avatar walks on.
      */
-    public Avatar(Vector2 topLeftCorner, UserInputListener inputListener, ImageReader imageReader) {
+    public Avatar(Vector2 topLeftCorner, UserInputListener inputListener, ImageReader imageReader,
+                  HeightField heightField) {
         super(topLeftCorner, AVATAR_SIZE, null);
         setTag(TAG);
         this.inputListener = inputListener;
+        this.heightField = heightField;
 
         idleAnimation = new AnimationRenderable(IDLE_FRAMES, imageReader, true, FRAME_RATE);
         jumpAnimation = new AnimationRenderable(JUMP_FRAMES, imageReader, true, FRAME_RATE);
@@ -78,33 +92,20 @@ public class Avatar extends GameObject {
         renderer().setRenderable(currentRenderer);
 
         physics().preventIntersectionsFromDirection(Vector2.ZERO);
-        transform().setAccelerationY(INITIAL_MASS);
-        lastPosition = getTopLeftCorner();
+        lastX = topLeftCorner.x();
 
-        addComponent(dt -> setVelocity(getVelocity().add(Vector2.DOWN.mult(GRAVITY * dt))));
+        addComponent(this::applyGravity);
         addComponent(this::updateAvatarLogic);
     }
 
     /**
-     * onCollisionEnter() prevents the avatar from falling through blocks.
-     * @param other the other GameObject in the collision.
-     * @param collision the Collision object.
-     * */
-    @Override
-    public void onCollisionEnter(GameObject other, Collision collision) {
-        super.onCollisionEnter(other, collision);
-        if (other.getTag().equals(GROUND_TAG)) {
-            this.transform().setVelocityY(0);
-        }
-    }
-    /**
-     * onCollisionStay() updates the onGround field.
+     * onCollisionStay() updates the onGround field when standing on a trunk.
      * @param other the other GameObject in the collision.
      * @param collision the Collision object.
      * */
     @Override
     public void onCollisionStay(GameObject other, Collision collision) {
-        if (GROUND_TAG.equals(other.getTag()) || TRUNK_TAG.equals(other.getTag())) {
+        if (TRUNK_TAG.equals(other.getTag())) {
             Vector2 normal = collision.getNormal();
             // If the normal points upward (negative Y), the avatar is standing on the object
             if (normal.y() < GROUND_MIN) {
@@ -122,11 +123,11 @@ public class Avatar extends GameObject {
     }
 
     /**
-     * energySupplier() returns a Supplier that returns the current energy of the avatar.
+     * energySupplier() returns a supplier of the current energy of the avatar.
+     * @return the energy supplier, which does not box the energy.
      * */
-    public Supplier<Float> energySupplier() {
+    public EnergyDisplay.FloatSupplier energySupplier() {
         return () -> energy;
-
     }
 
     /**
@@ -149,7 +150,7 @@ public class Avatar extends GameObject {
      * updateAnimation() updates the animation of the avatar.
      * */
     private void updateAnimation() {
-        float dx = getTopLeftCorner().x() - lastPosition.x();
+        float dx = getTopLeftCorner().x() - lastX;
         boolean movedHorizontally = Math.abs(dx) > MINIMAL_HORIZONTAL_MOVEMENT;
         AnimationRenderable next = idleAnimation;
         if (!isOnGround()) {
@@ -172,6 +173,83 @@ public class Avatar extends GameObject {
     public void update(float deltaTime) {
         super.update(deltaTime);
         onGround = false; // reset every frame
+        resolveGroundContact();
+    }
+
+    /**
+     * resolveGroundContact() keeps the avatar out of the terrain: a column whose surface is above
+     * the avatar's feet blocks it like a wall, and the avatar lands on the highest column under it.
+     * Package-private so a test can run it without the engine's update.
+     * */
+    void resolveGroundContact() {
+        Vector2 topLeft = getTopLeftCorner();
+        float left = topLeft.x();
+        float bottom = topLeft.y() + AVATAR_SIZE.y();
+        float velocityX = getVelocity().x();
+        if (velocityX > 0) {
+            int column = columnOf(left + AVATAR_SIZE.x() - STEP_TOLERANCE);
+            if (surfaceOfColumn(column) < bottom - STEP_TOLERANCE) {
+                left = column * Block.SIZE - AVATAR_SIZE.x();
+            }
+        } else if (velocityX < 0) {
+            int column = columnOf(left + STEP_TOLERANCE);
+            if (surfaceOfColumn(column) < bottom - STEP_TOLERANCE) {
+                left = (column + 1) * Block.SIZE;
+            }
+        }
+
+        float surface = Float.MAX_VALUE;
+        int lastColumn = columnOf(left + AVATAR_SIZE.x() - STEP_TOLERANCE);
+        for (int column = columnOf(left + STEP_TOLERANCE); column <= lastColumn; column++) {
+            surface = Math.min(surface, surfaceOfColumn(column));
+        }
+        float top = topLeft.y();
+        restingOnTerrain = false;
+        if (bottom >= surface && getVelocity().y() >= 0) {
+            top = surface - AVATAR_SIZE.y();
+            if (getVelocity().y() != 0) {
+                transform().setVelocityY(0);
+            }
+            onGround = true;
+            restingOnTerrain = true;
+        }
+        if (left != topLeft.x() || top != topLeft.y()) {
+            if (left != correctedTopLeft.x() || top != correctedTopLeft.y()) {
+                correctedTopLeft = new Vector2(left, top);
+            }
+            setTopLeftCorner(correctedTopLeft);
+        }
+    }
+
+    /**
+     * applyGravity() accelerates the avatar downwards, unless it rests on the terrain, where the
+     * ground contact would cancel the fall again in the same frame.
+     * @param deltaTime the time since the last frame.
+     * */
+    private void applyGravity(float deltaTime) {
+        if (!restingOnTerrain) {
+            transform().setVelocityY(getVelocity().y() + GRAVITY * deltaTime);
+        }
+    }
+
+    /**
+     * columnOf() returns the index of the terrain column containing x.
+     * @param x the x coordinate.
+     * @return the column index.
+     * */
+    private static int columnOf(float x) {
+        return (int) Math.floor(x / Block.SIZE);
+    }
+
+    /**
+     * surfaceOfColumn() returns the y coordinate of a terrain column's top, aligned to the block
+     * grid like the column's blocks.
+     * @param column the column index.
+     * @return the column's surface.
+     * */
+    private float surfaceOfColumn(int column) {
+        float groundHeight = heightField.heightAt(column * Block.SIZE);
+        return (float) Math.floor(groundHeight / Block.SIZE) * Block.SIZE;
     }
 
     /**
@@ -233,11 +311,16 @@ public class Avatar extends GameObject {
         if (isOnGround() && !moved && framesSinceLastSuccessfulJump > MINIMUM_FRAMES_TO_REGENERATE_ENERGY) {
             changeEnergy(1f);
         }
-        setVelocity(new Vector2(horizontalVelocity, verticalVelocity));
+        if (velocity.x() != horizontalVelocity) {
+            transform().setVelocityX(horizontalVelocity);
+        }
+        if (velocity.y() != verticalVelocity) {
+            transform().setVelocityY(verticalVelocity);
+        }
         if (horizontalVelocity > 0) renderer().setIsFlippedHorizontally(false);
         else if (horizontalVelocity < 0) renderer().setIsFlippedHorizontally(true);
         updateAnimation();
-        lastPosition = new Vector2(getTopLeftCorner());
+        lastX = getTopLeftCorner().x();
     }
     /**
      * changeEnergy() changes the energy of the avatar.
@@ -246,4 +329,18 @@ public class Avatar extends GameObject {
     private void changeEnergy(float delta) {
         energy = Math.max(0, Math.min(MAX_ENERGY, energy + delta));
     }
-}
\ No newline at end of file
+
+    /**
+     * Functional interface for sampling the terrain surface under the avatar.
+     */
+    @FunctionalInterface
+    public interface HeightField {
+        /**
+         * Returns the ground height of the terrain column at the given x-coordinate.
+         *
+         * @param x the x-coordinate of the column
+         * @return the column's ground height (y-coordinate), before alignment to the block grid
+         */
+        float heightAt(float x);
+    }
+}
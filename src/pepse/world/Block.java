@@ -1,18 +1,25 @@
 package pepse.world;
 
 import danogl.GameObject;
+import danogl.components.Component;
 import danogl.components.GameObjectPhysics;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Represents a single terrain block with fixed size and immovable physics.
+ * A block remembers the components attached to it so it can be reset and reused.
  */
 public class Block extends GameObject{
     /**
      * default block size 30x30
      * */
     public static final int SIZE = 30;
+    private static final float FULLY_OPAQUE = 1f;
+    private final List<Component> components = new ArrayList<>();
 
     /**
      * Constructs a new Block object.
@@ -24,4 +31,45 @@ public class Block extends GameObject{
         physics().preventIntersectionsFromDirection(Vector2.ZERO);
         physics().setMass(GameObjectPhysics.IMMOVABLE_MASS);
     }
-}
\ No newline at end of file
+
+    /**
+     * Adds a component and remembers it for {@link #reset}.
+     * @param component the component to add.
+     */
+    @Override
+    public void addComponent(Component component) {
+        super.addComponent(component);
+        components.add(component);
+    }
+
+    /**
+     * Removes a component.
+     * @param component the component to remove.
+     */
+    @Override
+    public void removeComponent(Component component) {
+        super.removeComponent(component);
+        components.remove(component);
+    }
+
+    /**
+     * Returns the block to the state of a freshly constructed one at a new position, so it can be
+     * reused: removes its components (including transitions), and resets its dimensions, renderable,
+     * angle, opaqueness, velocity and tag.
+     * @param topLeftCorner The new top-left position of the block.
+     * @param renderable The new visual representation of the block.
+     */
+    public void reset(Vector2 topLeftCorner, Renderable renderable) {
+        for (int i = components.size() - 1; i >= 0; i--) {
+            super.removeComponent(components.get(i));
+        }
+        components.clear();
+        setDimensions(Vector2.ONES.mult(SIZE));
+        setTopLeftCorner(topLeftCorner);
+        setVelocity(Vector2.ZERO);
+        renderer().setRenderable(renderable);
+        renderer().setRenderableAngle(0);
+        renderer().setOpaqueness(FULLY_OPAQUE);
+        setTag(null);
+    }
+}
@@ -0,0 +1,250 @@
+package pepse.world;
+
+import danogl.GameObject;
+import danogl.collisions.Layer;
+import danogl.util.Vector2;
+import pepse.util.ColorSupplier;
+import pepse.util.NoiseGenerator;
+
+import java.awt.Color;
+import java.util.Random;
+
+/**
+ * The clouds across the sky, and the rain they drop when the avatar jumps. A fixed set of clouds
+ * at different depths drifts to the right, the distant ones smaller, higher and slower, and the
+ * camera's movement shifts each cloud by a share of it that grows with its depth, so the sky has
+ * parallax. A cloud that leaves the view is recycled on the other side with another shape from a
+ * small library of pre-rendered shapes, at a height and distance taken from noise.
+ * All the clouds are moved by a single {@link #update}, and each is one GameObject, so the cost
+ * per cloud does not depend on its shape.
+ */
+public class CloudField {
+    /** The layer of the rain system, behind the clouds. */
+    public static final int RAIN_LAYER = Layer.BACKGROUND;
+    /** The layer of the clouds, in front of the sun. */
+    public static final int CLOUD_LAYER = Layer.BACKGROUND + 11;
+    private static final Color BASE_CLOUD_COLOR = new Color(255, 255, 255);
+    private static final int[][] CLASSIC_PATTERN = {
+            {0, 1, 1, 0, 0, 0},
+            {1, 1, 1, 0, 1, 0},
+            {1, 1, 1, 1, 1, 1},
+            {1, 1, 1, 1, 1, 1},
+            {0, 1, 1, 1, 0, 0},
+            {0, 0, 0, 0, 0, 0}};
+    private static final int GENERATED_SHAPES = 7;
+    private static final float MIN_DEPTH = 0.4f;
+    private static final float DRIFT_SPEED_FACTOR = 1f;
+    private static final float PARALLAX_FACTOR = 0.5f;
+    private static final float CLOUD_Y_FACTOR = 4f;     // the nearest clouds float 1/4 down the window
+    private static final float ALTITUDE_VARIATION_FACTOR = 12f;
+    private static final double NOISE_STEP = 0.37;
+    private static final int NOISE_START_POINT = 8;
+    private static final float MAX_GAP_FACTOR = 0.25f;
+    private static final Vector2 DROP_OFFSET = new Vector2(0, 5);
+    private static final int MIN_DROPS = 3;
+    private static final int HALF = 2;
+    private static final int UNRETURNED_VAL = 2;
+
+    private final float windowWidth;
+    private final float windowHeight;
+    private final float driftSpeed;
+    private final CameraPosition camera;
+    private final RainSystem rain;
+    private final JumpDetector jumpDetector;
+    private final Random random;
+    private final NoiseGenerator noise;
+    private final CloudShape[] shapes;
+    private final Cloud[] clouds;
+    private final int[] cellOrder;
+    private float lastCameraX;
+    private boolean followingCamera = false;
+    private boolean lastJumpFromGroundState = false;
+    private int recycled = 0;
+
+    /**
+     * Functional interface for adding a {@link GameObject} to the game world.
+     */
+    @FunctionalInterface
+    public interface GameObjectAdder {
+        /**
+         * Adds the given {@code GameObject} to the specified layer.
+         *
+         * @param go the game object to be added
+         * @param layer the rendering layer in which to place the object
+         */
+        void add(GameObject go, int layer);
+    }
+
+    /**
+     * Functional interface for detecting jump state of the avatar.
+     */
+    @FunctionalInterface
+    public interface JumpDetector {
+        /**
+         * Checks whether the avatar is currently attempting to jump AND is on the ground.
+         *
+         * @return {@code true} if the avatar is jumping from the ground; {@code false} otherwise
+         */
+        boolean isAvatarJumpingFromGround();
+    }
+
+    /**
+     * Functional interface for following the camera, which the clouds' parallax depends on.
+     */
+    @FunctionalInterface
+    public interface CameraPosition {
+        /**
+         * @return the x-coordinate of the camera's center, in world coordinates
+         */
+        float centerX();
+    }
+
+    /**
+     * Builds the clouds, spread over the view; add them with {@link #addClouds}.
+     *
+     * @param windowDimensions full window dimensions (camera-space)
+     * @param cycleLength      simulation-day length; the nearest clouds cross the view once in it
+     * @param seed             the seed of the shapes, heights and distances
+     * @param cloudCount       the number of clouds, at least two
+     * @param camera           the camera the parallax follows
+     * @param rain             the rain system the clouds' drops fall in
+     * @param jumpDetector     tells whether the avatar is currently jumping from ground
+     */
+    public CloudField(Vector2 windowDimensions, float cycleLength, int seed, int cloudCount,
+                      CameraPosition camera, RainSystem rain, JumpDetector jumpDetector) {
+        this.windowWidth = windowDimensions.x();
+        this.windowHeight = windowDimensions.y();
+        this.driftSpeed = windowWidth / cycleLength * DRIFT_SPEED_FACTOR;
+        this.camera = camera;
+        this.rain = rain;
+        this.jumpDetector = jumpDetector;
+        this.random = new Random(seed);
+        this.noise = new NoiseGenerator(seed, NOISE_START_POINT);
+        shapes = new CloudShape[GENERATED_SHAPES + 1];
+        shapes[0] = new CloudShape(CLASSIC_PATTERN,
+                ColorSupplier.approximateMonoColor(BASE_CLOUD_COLOR));
+        int maxCells = shapes[0].cellCount();
+        for (int i = 1; i < shapes.length; i++) {
+            shapes[i] = CloudShape.generate(noise, i,
+                    ColorSupplier.approximateMonoColor(BASE_CLOUD_COLOR));
+            maxCells = Math.max(maxCells, shapes[i].cellCount());
+        }
+        cellOrder = new int[maxCells];
+        clouds = new Cloud[cloudCount];
+        for (int i = 0; i < cloudCount; i++) {
+            // the farthest cloud first, so nearer clouds are drawn over it
+            float depth = MIN_DEPTH + (1 - MIN_DEPTH) * i / (cloudCount - 1);
+            CloudShape shape = shapes[random.nextInt(shapes.length)];
+            float width = shape.width() * depth;
+            float x = random.nextFloat() * (windowWidth + width) - width;
+            clouds[i] = new Cloud(shape, depth, x, nextAltitude(depth));
+        }
+    }
+
+    /**
+     * Adds every cloud to the game, the farthest first.
+     *
+     * @param adder callback that adds a {@link GameObject} at the given layer
+     */
+    public void addClouds(GameObjectAdder adder) {
+        for (Cloud cloud : clouds) {
+            adder.add(cloud, CLOUD_LAYER);
+        }
+    }
+
+    /**
+     * Drifts every cloud and applies the camera's movement since the last frame at the cloud's
+     * share, recycles the clouds that left the view, and rains when the avatar starts a jump.
+     * The camera is only read from the first update on, as it may not exist before.
+     *
+     * @param deltaTime the time since the last frame
+     */
+    public void update(float deltaTime) {
+        float cameraX = camera.centerX();
+        if (!followingCamera) {
+            lastCameraX = cameraX;
+            followingCamera = true;
+        }
+        float cameraMove = cameraX - lastCameraX;
+        lastCameraX = cameraX;
+        for (Cloud cloud : clouds) {
+            float dx = cloud.scale() * (driftSpeed * deltaTime - cameraMove * PARALLAX_FACTOR);
+            cloud.moveBy(dx);
+            // only a cloud moving away from the view is recycled, so a recycled one can come in
+            if (dx > 0 && cloud.x() > windowWidth) {
+                recycle(cloud, true);
+            } else if (dx < 0 && cloud.x() + cloud.width() < 0) {
+                recycle(cloud, false);
+            }
+        }
+        boolean currentJumpFromGroundState = jumpDetector.isAvatarJumpingFromGround();
+        // Check if jump from ground was just initiated (transition from false to true)
+        if (currentJumpFromGroundState && !lastJumpFromGroundState) {
+            rainFromVisibleClouds();
+        }
+        lastJumpFromGroundState = currentJumpFromGroundState;
+    }
+
+    /**
+     * @return the number of clouds recycled so far.
+     */
+    public int recycledCount() {
+        return recycled;
+    }
+
+    /**
+     * Moves a cloud that left the view to just outside its other side, with a new shape and height.
+     *
+     * @param cloud  the cloud
+     * @param toLeft whether the cloud left on the right and comes back on the left
+     */
+    private void recycle(Cloud cloud, boolean toLeft) {
+        CloudShape shape = shapes[random.nextInt(shapes.length)];
+        float depth = cloud.scale();
+        float gap = random.nextFloat() * windowWidth * MAX_GAP_FACTOR;
+        float x = toLeft ? -shape.width() * depth - gap : windowWidth + gap;
+        cloud.reshape(shape, x, nextAltitude(depth));
+        recycled++;
+    }
+
+    /**
+     * Picks the height of the next placed cloud from the noise: distant clouds float higher.
+     *
+     * @param depth the cloud's depth, in [MIN_DEPTH,1]
+     * @return the y-coordinate of the cloud's top edge, in camera coordinates
+     */
+    private float nextAltitude(float depth) {
+        float variation = (float) noise.noise(recycled * NOISE_STEP + depth,
+                windowHeight / ALTITUDE_VARIATION_FACTOR);
+        return Math.max(0, windowHeight / CLOUD_Y_FACTOR * depth + variation);
+    }
+
+    /**
+     * Spawns rain drops from random cells of every cloud in view: at least three per cloud, up to
+     * half its cells.
+     */
+    private void rainFromVisibleClouds() {
+        for (Cloud cloud : clouds) {
+            if (cloud.x() + cloud.width() < 0 || cloud.x() > windowWidth) {
+                continue;
+            }
+            CloudShape shape = cloud.shape();
+            int cells = shape.cellCount();
+            int maxDrops = Math.max(MIN_DROPS, cells / HALF);
+            int numDrops = Math.min(random.nextInt(maxDrops - UNRETURNED_VAL) + MIN_DROPS, cells);
+            for (int i = 0; i < cells; i++) {
+                cellOrder[i] = i;
+            }
+            // Pick random distinct cells by shuffling the front of the order
+            for (int i = 0; i < numDrops; i++) {
+                int pick = i + random.nextInt(cells - i);
+                int cell = cellOrder[pick];
+                cellOrder[pick] = cellOrder[i];
+                cellOrder[i] = cell;
+                rain.spawnAtScreen(
+                        cloud.x() + shape.cellCenterX(cell) * cloud.scale() + DROP_OFFSET.x(),
+                        cloud.y() + shape.cellCenterY(cell) * cloud.scale() + DROP_OFFSET.y());
+            }
+        }
+    }
+}
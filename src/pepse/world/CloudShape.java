@@ -0,0 +1,141 @@
+package pepse.world;
+
+import danogl.gui.rendering.ImageRenderable;
+import danogl.util.Vector2;
+import pepse.util.NoiseGenerator;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * The look of a cloud: a grid of square cells, pre-rendered once into a single image, so a cloud
+ * costs one draw however many cells it has. The centers of the filled cells are kept for spawning
+ * rain from them. Shapes are shared by the clouds showing them and never change.
+ */
+public final class CloudShape {
+    /** The side of a cell, in pixels, at full scale: two thirds of a block. */
+    public static final int CELL_SIZE = (int) (Block.SIZE / 1.5f);
+    private static final float HALF = 2f;
+    private static final int GENERATED_ROWS = 5;
+    private static final int MIN_GENERATED_COLUMNS = 6;
+    private static final int GENERATED_COLUMNS_RANGE = 7;
+    private static final double NOISE_SPACING = 64;
+    private static final double OUTLINE_BASE = 0.7;
+    private static final double OUTLINE_VARIATION = 0.3;
+
+    private final ImageRenderable renderable;
+    private final int width;
+    private final int height;
+    private final float[] cellCenterX;
+    private final float[] cellCenterY;
+
+    /**
+     * Constructs a shape from a pattern of cells.
+     * @param pattern the cells, by row, where a nonzero entry is filled; rows have equal lengths.
+     * @param color the color of the cells.
+     */
+    public CloudShape(int[][] pattern, Color color) {
+        int rows = pattern.length;
+        int columns = pattern[0].length;
+        width = columns * CELL_SIZE;
+        height = rows * CELL_SIZE;
+        int cells = 0;
+        for (int[] row : pattern) {
+            for (int cell : row) {
+                if (cell != 0) {
+                    cells++;
+                }
+            }
+        }
+        cellCenterX = new float[cells];
+        cellCenterY = new float[cells];
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(color);
+        int cell = 0;
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                if (pattern[row][column] == 0) {
+                    continue; // transparent
+                }
+                graphics.fillRect(column * CELL_SIZE, row * CELL_SIZE, CELL_SIZE, CELL_SIZE);
+                cellCenterX[cell] = column * CELL_SIZE + CELL_SIZE / HALF;
+                cellCenterY[cell] = row * CELL_SIZE + CELL_SIZE / HALF;
+                cell++;
+            }
+        }
+        graphics.dispose();
+        renderable = new ImageRenderable(image);
+    }
+
+    /**
+     * Generates a cumulus-like shape: columns of cells rise from a flat bottom row, tallest in
+     * the middle, with an outline that follows the noise.
+     * @param noise the noise the outline follows.
+     * @param index which shape to generate; different indices sample different stretches of noise.
+     * @param color the color of the cells.
+     * @return the shape.
+     */
+    public static CloudShape generate(NoiseGenerator noise, int index, Color color) {
+        int columns = MIN_GENERATED_COLUMNS + Math.floorMod(index * MIN_GENERATED_COLUMNS + 1,
+                GENERATED_COLUMNS_RANGE);
+        int[][] pattern = new int[GENERATED_ROWS][columns];
+        for (int column = 0; column < columns; column++) {
+            double envelope = Math.sin(Math.PI * (column + 0.5) / columns);
+            double outline = OUTLINE_BASE
+                    + OUTLINE_VARIATION * noise.noise(index * NOISE_SPACING + column, 1);
+            int filled = (int) Math.round(envelope * outline * GENERATED_ROWS);
+            filled = Math.max(1, Math.min(GENERATED_ROWS, filled));
+            for (int row = GENERATED_ROWS - filled; row < GENERATED_ROWS; row++) {
+                pattern[row][column] = 1;
+            }
+        }
+        return new CloudShape(pattern, color);
+    }
+
+    /**
+     * @return the pre-rendered image of the shape.
+     */
+    public ImageRenderable renderable() {
+        return renderable;
+    }
+
+    /**
+     * @param scale the scale the shape is drawn at.
+     * @return the size of the shape at the scale.
+     */
+    public Vector2 dimensions(float scale) {
+        return new Vector2(width * scale, height * scale);
+    }
+
+    /**
+     * @return the width of the shape at full scale.
+     */
+    public int width() {
+        return width;
+    }
+
+    /**
+     * @return the number of filled cells.
+     */
+    public int cellCount() {
+        return cellCenterX.length;
+    }
+
+    /**
+     * @param cell the index of a filled cell.
+     * @return the x-coordinate of the cell's center, relative to the shape's left edge at full scale.
+     */
+    public float cellCenterX(int cell) {
+        return cellCenterX[cell];
+    }
+
+    /**
+     * @param cell the index of a filled cell.
+     * @return the y-coordinate of the cell's center, relative to the shape's top edge at full scale.
+     */
+    public float cellCenterY(int cell) {
+        return cellCenterY[cell];
+    }
+}
@@ -0,0 +1,242 @@
+package pepse.world;
+
+import danogl.GameObject;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+
+/**
+ * All the raindrops of the game, as a single GameObject. Instead of a GameObject, a renderable and
+ * a fade transition per drop, the drops are kept in parallel primitive arrays of a fixed capacity,
+ * moved together in one loop every frame and drawn by one renderable. A drop falls in world
+ * coordinates until it reaches the terrain under it, where it is removed by moving the last drop
+ * into its place, so spawning and removing drops never allocates.
+ * The object spans the drops, so the engine draws it whenever any drop is on screen.
+ * The rain is drawn right above the sky and below everything else, so each drop's translucent
+ * color is blended with the sky color up front, and the drops are drawn opaque, which Java2D does
+ * many times faster than blending every drop with what is behind it.
+ */
+public class RainSystem extends GameObject {
+    private static final String RAIN_TAG = "raindrop";
+    private static final Color RAIN_COLOR = new Color(100, 100, 255);
+    private static final float DROP_SIZE = 10;
+    private static final float RAIN_SPEED = 200f;
+    private static final float FADE_TIME = 3f;
+    private static final float MIN_OPAQUENESS = 0.2f;
+    private static final int OPAQUENESS_LEVELS = 16;
+
+    private final int capacity;
+    private final GroundHeight ground;
+    private final ViewOrigin viewOrigin;
+    private final float[] x;
+    private final float[] y;
+    private final float[] velocityY;
+    private final float[] opaqueness;
+    private final Color[] shades = new Color[OPAQUENESS_LEVELS + 1];
+    private int count = 0;
+    private float spanWidth = DROP_SIZE;
+    private float spanHeight = DROP_SIZE;
+
+    /**
+     * Functional interface for sampling the terrain surface the drops fall onto.
+     */
+    @FunctionalInterface
+    public interface GroundHeight {
+        /**
+         * Returns the ground height of the terrain column at the given x-coordinate.
+         *
+         * @param x the x-coordinate, in world coordinates
+         * @return the y-coordinate of the ground surface
+         */
+        float heightAt(float x);
+    }
+
+    /**
+     * Functional interface for locating the camera's view in the world, so that drops spawned
+     * from objects drawn in camera coordinates start where those objects appear.
+     */
+    @FunctionalInterface
+    public interface ViewOrigin {
+        /**
+         * Returns the world coordinates of the top-left corner of the camera's view.
+         *
+         * @return the top-left corner of the view
+         */
+        Vector2 topLeft();
+    }
+
+    /**
+     * Constructs an empty rain system.
+     * @param capacity the most drops falling at once; drops spawned beyond it are skipped.
+     * @param backgroundColor the color drawn behind the rain, which the drops' colors are blended
+     *                        with.
+     * @param ground the terrain height the drops are removed at.
+     * @param viewOrigin the top-left corner of the camera's view, for spawning from camera
+     *                   coordinates.
+     */
+    public RainSystem(int capacity, Color backgroundColor, GroundHeight ground, ViewOrigin viewOrigin) {
+        super(Vector2.ZERO, new Vector2(DROP_SIZE, DROP_SIZE), null);
+        this.capacity = capacity;
+        this.ground = ground;
+        this.viewOrigin = viewOrigin;
+        x = new float[capacity];
+        y = new float[capacity];
+        velocityY = new float[capacity];
+        opaqueness = new float[capacity];
+        for (int level = 0; level <= OPAQUENESS_LEVELS; level++) {
+            shades[level] = blend(RAIN_COLOR, backgroundColor, (float) level / OPAQUENESS_LEVELS);
+        }
+        renderer().setRenderable(new DropsRenderable());
+        setTag(RAIN_TAG);
+    }
+
+    /**
+     * Spawns a drop centered at a point given in camera coordinates.
+     * @param screenX the x-coordinate of the drop's center, in camera coordinates.
+     * @param screenY the y-coordinate of the drop's center, in camera coordinates.
+     * @return whether the drop was spawned, false when the system is full.
+     */
+    public boolean spawnAtScreen(float screenX, float screenY) {
+        Vector2 origin = viewOrigin.topLeft();
+        return spawn(origin.x() + screenX, origin.y() + screenY);
+    }
+
+    /**
+     * Spawns a drop centered at a point in world coordinates.
+     * @param centerX the x-coordinate of the drop's center.
+     * @param centerY the y-coordinate of the drop's center.
+     * @return whether the drop was spawned, false when the system is full.
+     */
+    public boolean spawn(float centerX, float centerY) {
+        if (count == capacity) {
+            return false;
+        }
+        x[count] = centerX - DROP_SIZE / 2;
+        y[count] = centerY - DROP_SIZE / 2;
+        velocityY[count] = RAIN_SPEED;
+        opaqueness[count] = 1f;
+        count++;
+        return true;
+    }
+
+    /**
+     * @return the number of drops falling.
+     */
+    public int dropCount() {
+        return count;
+    }
+
+    /**
+     * @return the most drops that can fall at once.
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Moves every drop, fades it, and removes the drops that reached the terrain; then makes the
+     * object span the remaining drops.
+     * @param deltaTime the time since the last frame.
+     */
+    @Override
+    public void update(float deltaTime) {
+        super.update(deltaTime);
+        float fade = deltaTime / FADE_TIME;
+        float minX = Float.MAX_VALUE;
+        float minY = Float.MAX_VALUE;
+        float maxX = -Float.MAX_VALUE;
+        float maxY = -Float.MAX_VALUE;
+        int i = 0;
+        while (i < count) {
+            y[i] += velocityY[i] * deltaTime;
+            if (y[i] + DROP_SIZE >= ground.heightAt(x[i] + DROP_SIZE / 2)) {
+                removeDrop(i);
+                continue;
+            }
+            opaqueness[i] = Math.max(MIN_OPAQUENESS, opaqueness[i] - fade);
+            minX = Math.min(minX, x[i]);
+            minY = Math.min(minY, y[i]);
+            maxX = Math.max(maxX, x[i]);
+            maxY = Math.max(maxY, y[i]);
+            i++;
+        }
+        if (count > 0) {
+            transform().setTopLeftCorner(minX, minY);
+            growSpan(maxX - minX + DROP_SIZE, maxY - minY + DROP_SIZE);
+        }
+    }
+
+    /**
+     * Mixes two colors.
+     * @param front the color drawn on top.
+     * @param back the color behind it.
+     * @param opaqueness the front color's opaqueness, in [0,1].
+     * @return the resulting opaque color.
+     */
+    private static Color blend(Color front, Color back, float opaqueness) {
+        return new Color(
+                Math.round(front.getRed() * opaqueness + back.getRed() * (1 - opaqueness)),
+                Math.round(front.getGreen() * opaqueness + back.getGreen() * (1 - opaqueness)),
+                Math.round(front.getBlue() * opaqueness + back.getBlue() * (1 - opaqueness)));
+    }
+
+    /**
+     * Removes a drop by moving the last drop into its place.
+     * @param i the drop's index.
+     */
+    private void removeDrop(int i) {
+        count--;
+        x[i] = x[count];
+        y[i] = y[count];
+        velocityY[i] = velocityY[count];
+        opaqueness[i] = opaqueness[count];
+    }
+
+    /**
+     * Enlarges the object's dimensions when the drops spread wider or taller than ever before;
+     * they never shrink, so the dimensions are replaced only a handful of times.
+     * @param width the width the drops span.
+     * @param height the height the drops span.
+     */
+    private void growSpan(float width, float height) {
+        if (width > spanWidth || height > spanHeight) {
+            spanWidth = Math.max(spanWidth, width);
+            spanHeight = Math.max(spanHeight, height);
+            setDimensions(new Vector2(spanWidth, spanHeight));
+        }
+    }
+
+    /**
+     * Draws every drop relative to where the engine draws the object's top-left corner, with its
+     * opaqueness rounded to one of a few precomputed shades blended with the background.
+     */
+    private class DropsRenderable implements Renderable {
+        /**
+         * Draws the drops.
+         * @param g the graphics context.
+         * @param topLeftCorner the object's top-left corner, in screen coordinates.
+         * @param dimensions ignored; the drops have a fixed size.
+         * @param degreesCounterClockwise ignored.
+         * @param isFlippedHorizontally ignored.
+         * @param isFlippedVertically ignored.
+         * @param opaqueness the object's opaqueness, in [0,1], applied on top of each drop's own.
+         */
+        @Override
+        public void render(Graphics2D g, Vector2 topLeftCorner, Vector2 dimensions,
+                           double degreesCounterClockwise, boolean isFlippedHorizontally,
+                           boolean isFlippedVertically, double opaqueness) {
+            Vector2 worldTopLeft = getTopLeftCorner();
+            float offsetX = topLeftCorner.x() - worldTopLeft.x();
+            float offsetY = topLeftCorner.y() - worldTopLeft.y();
+            int size = Math.round(DROP_SIZE);
+            for (int i = 0; i < count; i++) {
+                int level = Math.round(RainSystem.this.opaqueness[i] * (float) opaqueness
+                        * OPAQUENESS_LEVELS);
+                g.setColor(shades[level]);
+                g.fillRect(Math.round(x[i] + offsetX), Math.round(y[i] + offsetY), size, size);
+            }
+        }
+    }
+}
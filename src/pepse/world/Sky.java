@@ -11,7 +11,8 @@ import java.awt.*;
  * A factory class for creating the sky GameObject.
  */
 public class Sky {
-    private static final Color BASIC_SKY_COLOR = Color.decode("#80C6E5");
+    /** The color of the sky. */
+    public static final Color BASIC_SKY_COLOR = Color.decode("#80C6E5");
     private static final String SKY_TAG = "sky";
 
     /**
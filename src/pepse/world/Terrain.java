@@ -1,13 +1,19 @@
 package pepse.world;
 
-import danogl.gui.rendering.RectangleRenderable;
+import danogl.GameObject;
+import danogl.collisions.Layer;
+import danogl.gui.rendering.ImageRenderable;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
 
 import pepse.util.ColorSupplier;
 import pepse.util.NoiseGenerator;
+import pepse.util.StripedRenderable;
+import pepse.world.chunks.ChunkData;
+import pepse.world.chunks.ChunkImageCache;
 
 import java.awt.*;
+import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.BiFunction;
@@ -16,19 +22,38 @@ import java.util.function.BiFunction;
  * The Terrain class is responsible for procedurally generating ground blocks in the game world.
  * It uses smooth noise to determine terrain height at each x-coordinate and constructs a vertical
  * column of blocks for each x. The terrain is rendered using a base ground color and is tagged
- * appropriately for collision detection.
+ * as ground.
+ * In column-merging mode each column is emitted as a single tall block with a striped renderable,
+ * so a chunk of 11 columns holds 11 ground objects instead of 220.
+ * Block colors come from a shared palette: every column takes one of a few fixed stripe patterns,
+ * picked by its x coordinate, so a column looks the same every time it is created and the whole
+ * terrain draws with a handful of renderables.
+ * Ground objects are render-only and live on a layer that collides with nothing. In baked mode a
+ * chunk's columns are rasterized once into a single image, which is the chunk's only ground object.
  */
 public class Terrain {
     // constants
     /**initial ground height*/
     public static final float GROUND_LENGTH = 0.6f;
     private static final Color BASE_GROUND_COLOR = new Color(212, 123, 74);
-    private static final int TERRAIN_DEPTH = 20;
+    /**number of blocks in every terrain column*/
+    public static final int TERRAIN_DEPTH = 20;
+    /**layer of ground blocks and baked terrain images; it collides with nothing, since the avatar
+     * finds the ground from the terrain heights*/
+    public static final int GROUND_LAYER = Layer.STATIC_OBJECTS - 1;
     private static final String GROUND_TAG = "ground";
+    private static final String GROUND_IMAGE_TAG = "groundImage";
     private static final float NOISE_FACTOR = Block.SIZE * 10;
+    private static final int COLOR_VARIANTS = 16;
+    private static final int COLUMN_PATTERN_SALT = -1;
+    private static final ColorSupplier.Palette GROUND_PALETTE =
+            ColorSupplier.palette(BASE_GROUND_COLOR, COLOR_VARIANTS);
+    private static final Renderable[] MERGED_COLUMN_RENDERABLES = createMergedColumnRenderables();
 
     private final float groundHeightAtX0;
     private final NoiseGenerator noiseGenerator;
+    private final boolean mergeColumns;
+    private final WorldObjectPool pool;
     private ArrayList<Block> blocks;
 
     /**
@@ -37,8 +62,33 @@ public class Terrain {
      * @param seed seed for terrain generation
      */
     public Terrain(Vector2 windowDimensions, int seed) {
+        this(windowDimensions, seed, false);
+    }
+
+    /**
+     * Constructor for Terrain class
+     * @param windowDimensions window dimensions
+     * @param seed seed for terrain generation
+     * @param mergeColumns whether each column is created as one tall block instead of
+     *                     TERRAIN_DEPTH separate blocks
+     */
+    public Terrain(Vector2 windowDimensions, int seed, boolean mergeColumns) {
+        this(windowDimensions, seed, mergeColumns, null);
+    }
+
+    /**
+     * Constructor for Terrain class
+     * @param windowDimensions window dimensions
+     * @param seed seed for terrain generation
+     * @param mergeColumns whether each column is created as one tall block instead of
+     *                     TERRAIN_DEPTH separate blocks
+     * @param pool pool to take ground blocks from, or null to always create new ones
+     */
+    public Terrain(Vector2 windowDimensions, int seed, boolean mergeColumns, WorldObjectPool pool) {
         this.groundHeightAtX0 = windowDimensions.y() * GROUND_LENGTH;
         this.noiseGenerator = new NoiseGenerator(seed, (int) groundHeightAtX0);
+        this.mergeColumns = mergeColumns;
+        this.pool = pool;
     }
 
     /**
@@ -62,27 +112,182 @@ public class Terrain {
         int newMin = roundToNearestStep.apply(minX, Direction.DOWN);
         int newMax = roundToNearestStep.apply(maxX, Direction.UP);
         for (int x = newMin; x <= newMax; x += Block.SIZE) {
-            createColumn(x);
+            createColumn(x, groundHeightAt(x));
+        }
+        return blocks;
+    }
+
+    /**
+     * Create blocks in the given X range from precomputed column heights
+     * @param minX minimum X
+     * @param maxX maximum X
+     * @param columnHeights the ground height of every column in the range, from minX rounded down
+     * @return list of blocks
+     */
+    public List<Block> createInRange(int minX, int maxX, float[] columnHeights) {
+        blocks = new ArrayList<>();
+        int newMin = roundToNearestStep.apply(minX, Direction.DOWN);
+        int newMax = roundToNearestStep.apply(maxX, Direction.UP);
+        for (int x = newMin, column = 0; x <= newMax; x += Block.SIZE, column++) {
+            createColumn(x, columnHeights[column]);
         }
         return blocks;
     }
+
+    /**
+     * Create blocks for every column of a generated chunk
+     * @param data the chunk's column heights
+     * @return list of blocks
+     */
+    public List<Block> createFromData(ChunkData data) {
+        blocks = new ArrayList<>();
+        for (int column = 0; column < data.columnCount(); column++) {
+            createColumn(data.columnX(column), data.heightAt(column));
+        }
+        return blocks;
+    }
+
+    /**
+     * Rasterize the columns of a generated chunk into a single image, with the same colors
+     * their blocks would have
+     * @param data the chunk's column heights
+     * @return the chunk's terrain image and its placement
+     */
+    public ChunkImageCache.ChunkImage rasterize(ChunkData data) {
+        int minTopY = Integer.MAX_VALUE;
+        int maxTopY = Integer.MIN_VALUE;
+        for (int column = 0; column < data.columnCount(); column++) {
+            int topBlockY = roundToNearestStep.apply((int) data.heightAt(column), Direction.DOWN);
+            minTopY = Math.min(minTopY, topBlockY);
+            maxTopY = Math.max(maxTopY, topBlockY);
+        }
+        int width = data.columnCount() * Block.SIZE;
+        int height = maxTopY - minTopY + TERRAIN_DEPTH * Block.SIZE;
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = image.createGraphics();
+        for (int column = 0; column < data.columnCount(); column++) {
+            int x = data.columnX(column);
+            int topBlockY = roundToNearestStep.apply((int) data.heightAt(column), Direction.DOWN);
+            int pattern = columnPattern(x);
+            for (int row = 0; row < TERRAIN_DEPTH; row++) {
+                graphics.setColor(GROUND_PALETTE.color(stripeVariant(pattern, row)));
+                graphics.fillRect(column * Block.SIZE, topBlockY - minTopY + row * Block.SIZE,
+                        Block.SIZE, Block.SIZE);
+            }
+        }
+        graphics.dispose();
+        return new ChunkImageCache.ChunkImage(new ImageRenderable(image),
+                new Vector2(data.columnX(0), minTopY), new Vector2(width, height));
+    }
+
+    /**
+     * Create the GameObject showing a baked chunk image, to be added to {@link #GROUND_LAYER}
+     * @param image the chunk's terrain image
+     * @return the image object
+     */
+    public static GameObject createImage(ChunkImageCache.ChunkImage image) {
+        GameObject imageObject = new GameObject(image.topLeft(), image.dimensions(), image.renderable());
+        imageObject.setTag(GROUND_IMAGE_TAG);
+        return imageObject;
+    }
+
+    /**
+     * Sample the ground height of consecutive columns
+     * @param startX x coordinate of the first column
+     * @param heights array to fill, one height per column
+     */
+    public void sampleHeights(int startX, float[] heights) {
+        for (int i = 0; i < heights.length; i++) {
+            heights[i] = startX + i * Block.SIZE;
+        }
+        // the whole chunk in one batch, written over the x coordinates
+        noiseGenerator.noise(heights, NOISE_FACTOR, heights);
+        for (int i = 0; i < heights.length; i++) {
+            heights[i] += groundHeightAtX0;
+        }
+    }
+
     /**
      * create a column of blocks at x
      * @param x x coordinate of column
+     * @param topY ground height of the column
      * */
-    private void createColumn(int x){
-        float topY = groundHeightAt(x);
+    private void createColumn(int x, float topY){
         int topBlockY = roundToNearestStep.apply((int) topY, Direction.DOWN);
+        int pattern = columnPattern(x);
+        if (mergeColumns) {
+            createMergedColumn(x, topBlockY, pattern);
+            return;
+        }
         for (int i = 0; i < TERRAIN_DEPTH; i++) {
             int y = topBlockY + i * Block.SIZE;
-            Renderable blockImage = new RectangleRenderable(
-                    ColorSupplier.approximateColor(BASE_GROUND_COLOR));
-            Block block = new Block(new Vector2(x, y), blockImage);
+            Renderable blockImage = GROUND_PALETTE.renderable(stripeVariant(pattern, i));
+            Block block = newBlock(new Vector2(x, y), blockImage);
             block.setTag(GROUND_TAG);
             blocks.add(block);
         }
     }
 
+    /**
+     * create a single tall block covering the whole column at x, keeping the per-block
+     * color variation as stripes of one renderable
+     * @param x x coordinate of column
+     * @param topBlockY y coordinate of the column's top, aligned to the block grid
+     * @param pattern the column's stripe pattern
+     * */
+    private void createMergedColumn(int x, int topBlockY, int pattern) {
+        Block column = newBlock(new Vector2(x, topBlockY), MERGED_COLUMN_RENDERABLES[pattern]);
+        column.setDimensions(new Vector2(Block.SIZE, Block.SIZE * TERRAIN_DEPTH));
+        column.setTag(GROUND_TAG);
+        blocks.add(column);
+    }
+
+    /**
+     * pick the stripe pattern of the column at x
+     * @param x x coordinate of column
+     * @return the pattern index
+     * */
+    private static int columnPattern(int x) {
+        return GROUND_PALETTE.variantAt(x, COLUMN_PATTERN_SALT);
+    }
+
+    /**
+     * get the palette variant of a block in a stripe pattern
+     * @param pattern the pattern index
+     * @param row the block row, 0 being the surface block
+     * @return the block's palette variant
+     * */
+    private static int stripeVariant(int pattern, int row) {
+        return GROUND_PALETTE.variantAt(pattern, row);
+    }
+
+    /**
+     * create the shared striped renderable of every column pattern
+     * @return one renderable per pattern
+     * */
+    private static Renderable[] createMergedColumnRenderables() {
+        Renderable[] renderables = new Renderable[GROUND_PALETTE.size()];
+        for (int pattern = 0; pattern < renderables.length; pattern++) {
+            Color[] colors = new Color[TERRAIN_DEPTH];
+            for (int row = 0; row < TERRAIN_DEPTH; row++) {
+                colors[row] = GROUND_PALETTE.color(stripeVariant(pattern, row));
+            }
+            renderables[pattern] = new StripedRenderable(colors);
+        }
+        return renderables;
+    }
+
+    /**
+     * take a ground block from the pool, or create one
+     * @param topLeftCorner top-left position of the block
+     * @param renderable visual representation of the block
+     * @return a block in the state of a freshly constructed one
+     * */
+    private Block newBlock(Vector2 topLeftCorner, Renderable renderable) {
+        return pool == null ? new Block(topLeftCorner, renderable)
+                : pool.acquireBlock(WorldObjectPool.Kind.GROUND, topLeftCorner, renderable);
+    }
+
     /** Direction enum for rounding */
     enum Direction {
         UP, DOWN
@@ -0,0 +1,228 @@
+package pepse.world;
+
+import danogl.GameObject;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+import pepse.world.trees.Flora;
+import pepse.world.trees.Fruit;
+
+import java.awt.Color;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the ground blocks, trunks, leaves and fruits of evicted chunks for reuse by new chunks,
+ * instead of letting them become garbage. Each kind has its own bounded free list.
+ * Released objects only become available on the next {@link #recycleReleased()}, so an object is
+ * never reused in the same frame its removal from the game was requested.
+ */
+public class WorldObjectPool {
+    private static final String GROUND_TAG = "ground";
+    private static final String TRUNK_TAG = "trunk";
+    private static final String LEAF_TAG = "leaf";
+
+    /**
+     * The kinds of pooled world objects.
+     */
+    public enum Kind {
+        /** terrain blocks and columns */
+        GROUND,
+        /** tree trunks */
+        TRUNK,
+        /** tree leaves */
+        LEAF,
+        /** fruits */
+        FRUIT
+    }
+
+    private final Bucket<Block> ground;
+    private final Bucket<Block> trunks;
+    private final Bucket<Block> leaves;
+    private final Bucket<Fruit> fruits;
+
+    /**
+     * Constructs an empty pool.
+     * @param blockCapacity the maximal number of free ground blocks kept.
+     * @param treeCapacity the maximal number of free trunks, of free leaves and of free fruits kept.
+     */
+    public WorldObjectPool(int blockCapacity, int treeCapacity) {
+        ground = new Bucket<>(blockCapacity);
+        trunks = new Bucket<>(treeCapacity);
+        leaves = new Bucket<>(treeCapacity);
+        fruits = new Bucket<>(treeCapacity);
+    }
+
+    /**
+     * Returns a reset block of the given kind, or a new one if none is free.
+     * @param kind the kind of block: ground, trunk or leaf.
+     * @param topLeftCorner The top-left position of the block.
+     * @param renderable The visual representation of the block.
+     * @return a block in the state of a freshly constructed one.
+     */
+    public Block acquireBlock(Kind kind, Vector2 topLeftCorner, Renderable renderable) {
+        Block block = blockBucket(kind).acquire();
+        if (block == null) {
+            return new Block(topLeftCorner, renderable);
+        }
+        block.reset(topLeftCorner, renderable);
+        return block;
+    }
+
+    /**
+     * Returns a reset, uneaten fruit, or a new one if none is free.
+     * @param topLeftCorner The position of the fruit.
+     * @param remover The function to remove a GameObject from the game world.
+     * @param fruitColor The color of the fruit.
+     * @return a fruit ready to be added to the game.
+     */
+    public Fruit acquireFruit(Vector2 topLeftCorner, Flora.GameObjectRemover remover, Color fruitColor) {
+        Fruit fruit = fruits.acquire();
+        if (fruit == null) {
+            return new Fruit(topLeftCorner, remover, fruitColor);
+        }
+        fruit.reset(topLeftCorner, fruitColor);
+        return fruit;
+    }
+
+    /**
+     * Hands an object that was removed from the game back to the pool.
+     * Objects that are not pooled world objects are ignored.
+     * @param obj the removed object.
+     */
+    public void release(GameObject obj) {
+        if (obj instanceof Fruit) {
+            fruits.release((Fruit) obj);
+        } else if (obj instanceof Block) {
+            Bucket<Block> bucket = bucketForTag(obj.getTag());
+            if (bucket != null) {
+                bucket.release((Block) obj);
+            }
+        }
+    }
+
+    /**
+     * Makes the objects released so far available for reuse. Call once per frame.
+     */
+    public void recycleReleased() {
+        ground.recycleReleased();
+        trunks.recycleReleased();
+        leaves.recycleReleased();
+        fruits.recycleReleased();
+    }
+
+    /**
+     * @return the number of acquisitions served by a pooled object.
+     */
+    public long hits() {
+        return ground.hits + trunks.hits + leaves.hits + fruits.hits;
+    }
+
+    /**
+     * @return the number of acquisitions that had to allocate a new object.
+     */
+    public long misses() {
+        return ground.misses + trunks.misses + leaves.misses + fruits.misses;
+    }
+
+    /**
+     * @param kind the kind of object.
+     * @return the share of acquisitions of that kind served by a pooled object, in [0,1].
+     */
+    public float hitRate(Kind kind) {
+        Bucket<?> bucket = kind == Kind.FRUIT ? fruits : blockBucket(kind);
+        long total = bucket.hits + bucket.misses;
+        return total == 0 ? 0 : (float) bucket.hits / total;
+    }
+
+    /**
+     * @return the share of all acquisitions served by a pooled object, in [0,1].
+     */
+    public float hitRate() {
+        long total = hits() + misses();
+        return total == 0 ? 0 : (float) hits() / total;
+    }
+
+    /**
+     * @param kind a block kind.
+     * @return the bucket of that kind.
+     */
+    private Bucket<Block> blockBucket(Kind kind) {
+        switch (kind) {
+            case TRUNK:
+                return trunks;
+            case LEAF:
+                return leaves;
+            case GROUND:
+                return ground;
+            default:
+                throw new IllegalArgumentException("not a block kind: " + kind);
+        }
+    }
+
+    /**
+     * @param tag a block's tag.
+     * @return the bucket for blocks with that tag, or null if they are not pooled.
+     */
+    private Bucket<Block> bucketForTag(String tag) {
+        if (GROUND_TAG.equals(tag)) {
+            return ground;
+        }
+        if (TRUNK_TAG.equals(tag)) {
+            return trunks;
+        }
+        if (LEAF_TAG.equals(tag)) {
+            return leaves;
+        }
+        return null;
+    }
+
+    /**
+     * The bounded free list of one kind of object.
+     * @param <T> the pooled type.
+     */
+    private static final class Bucket<T> {
+        private final int capacity;
+        private final ArrayDeque<T> free = new ArrayDeque<>();
+        private final List<T> released = new ArrayList<>();
+        private long hits = 0;
+        private long misses = 0;
+
+        /**
+         * @param capacity the maximal number of free objects kept.
+         */
+        private Bucket(int capacity) {
+            this.capacity = capacity;
+        }
+
+        /**
+         * @return a free object, or null if none is free.
+         */
+        private T acquire() {
+            T obj = free.poll();
+            if (obj == null) {
+                misses++;
+            } else {
+                hits++;
+            }
+            return obj;
+        }
+
+        /**
+         * @param obj an object removed from the game; dropped if the bucket is full.
+         */
+        private void release(T obj) {
+            if (free.size() + released.size() < capacity) {
+                released.add(obj);
+            }
+        }
+
+        /**
+         * Moves the released objects to the free list.
+         */
+        private void recycleReleased() {
+            free.addAll(released);
+            released.clear();
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package pepse.world.chunks;
+
+import danogl.GameObject;
+import pepse.world.trees.Flora;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams chunk GameObjects into and out of the game under a per-frame time budget.
+ * Additions are queued per chunk and committed nearest chunk first; removals are queued in order.
+ * Removals of a dormant chunk's objects, which stay with the chunk instead of being released, are
+ * queued per chunk so they can be cancelled or completed when the chunk is evicted or resumed.
+ * {@link #drain} executes queued operations until the frame's budget is spent, so committing or
+ * evicting a whole chunk is spread over several frames instead of stalling one.
+ */
+public class ChunkCommitScheduler {
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+    private static final float HALF = 2f;
+    private static final int INITIAL_QUEUE_CAPACITY = 64;
+
+    private final int chunkSize;
+    private final long budgetNanos;
+    private final Flora.GameObjectAdder adder;
+    private final Flora.GameObjectRemover remover;
+    private final Flora.GameObjectRemover suspender;
+    private final List<ChunkQueue> addQueues = new ArrayList<>();
+    private final List<ChunkQueue> suspendQueues = new ArrayList<>();
+    private final OperationQueue removals = new OperationQueue(INITIAL_QUEUE_CAPACITY);
+    private long overBudgetFrames = 0;
+
+    /**
+     * Constructs a commit scheduler.
+     * @param chunkSize the width of a chunk in pixels, used to rank chunks by distance.
+     * @param budgetMillis the time, in milliseconds, each frame may spend on queued operations.
+     * @param adder adds a GameObject to the game.
+     * @param remover removes a GameObject from the game for good.
+     * @param suspender removes a GameObject from the game while its chunk keeps it.
+     */
+    public ChunkCommitScheduler(int chunkSize, float budgetMillis, Flora.GameObjectAdder adder,
+                                Flora.GameObjectRemover remover, Flora.GameObjectRemover suspender) {
+        this.chunkSize = chunkSize;
+        this.budgetNanos = (long) (budgetMillis * NANOS_PER_MILLI);
+        this.adder = adder;
+        this.remover = remover;
+        this.suspender = suspender;
+    }
+
+    /**
+     * Queues the addition of a chunk's GameObject.
+     * Objects of the same chunk are added in the order they were queued.
+     * @param chunkId the chunk the object belongs to.
+     * @param obj the object to add.
+     * @param layer the layer to add it to.
+     */
+    public void scheduleAdd(int chunkId, GameObject obj, int layer) {
+        queueOf(addQueues, chunkId).operations.push(obj, layer);
+    }
+
+    /**
+     * Queues the removal of a GameObject.
+     * @param obj the object to remove.
+     * @param layer the layer to remove it from.
+     */
+    public void scheduleRemove(GameObject obj, int layer) {
+        removals.push(obj, layer);
+    }
+
+    /**
+     * Queues the removal of a chunk's GameObject that the chunk keeps, without releasing it.
+     * @param chunkId the chunk the object belongs to.
+     * @param obj the object to remove.
+     * @param layer the layer to remove it from.
+     */
+    public void scheduleRemove(int chunkId, GameObject obj, int layer) {
+        queueOf(suspendQueues, chunkId).operations.push(obj, layer);
+    }
+
+    /**
+     * Cancels the additions and the kept removals still queued for a chunk.
+     * Since a chunk's objects are added in order, the objects that were actually added are
+     * the ones queued first, up to the returned count.
+     * @param chunkId the chunk that went out of range.
+     * @return the number of queued additions that were cancelled and never happened.
+     */
+    public int cancel(int chunkId) {
+        ChunkQueue suspensions = findQueue(suspendQueues, chunkId);
+        if (suspensions != null) {
+            suspendQueues.remove(suspensions);
+        }
+        ChunkQueue queue = findQueue(addQueues, chunkId);
+        if (queue == null) {
+            return 0;
+        }
+        addQueues.remove(queue);
+        return queue.operations.size();
+    }
+
+    /**
+     * Executes the kept removals still queued for a chunk right away, so the chunk's objects can
+     * be queued for addition again without being added twice.
+     * @param chunkId the chunk coming back.
+     */
+    public void completeRemovals(int chunkId) {
+        ChunkQueue queue = findQueue(suspendQueues, chunkId);
+        if (queue == null) {
+            return;
+        }
+        while (!queue.operations.isEmpty()) {
+            queue.operations.executeNext(suspender);
+        }
+        suspendQueues.remove(queue);
+    }
+
+    /**
+     * Executes queued operations until this frame's budget is spent.
+     * Additions of the chunk nearest the focus go first, then removals.
+     * At least one operation is executed per call, so the queues always make progress.
+     * @param focusX the x coordinate the camera is centered on.
+     */
+    public void drain(float focusX) {
+        long start = System.nanoTime();
+        long deadline = start + budgetNanos;
+        boolean budgetLeft = true;
+        ChunkQueue nearest = nearestQueue(focusX);
+        while (nearest != null && budgetLeft) {
+            nearest.operations.executeNext(adder);
+            if (nearest.operations.isEmpty()) {
+                addQueues.remove(nearest);
+                nearest = nearestQueue(focusX);
+            }
+            budgetLeft = System.nanoTime() < deadline;
+        }
+        while (!removals.isEmpty() && budgetLeft) {
+            removals.executeNext(remover);
+            budgetLeft = System.nanoTime() < deadline;
+        }
+        while (!suspendQueues.isEmpty() && budgetLeft) {
+            ChunkQueue oldest = suspendQueues.get(0);
+            oldest.operations.executeNext(suspender);
+            if (oldest.operations.isEmpty()) {
+                suspendQueues.remove(0);
+            }
+            budgetLeft = System.nanoTime() < deadline;
+        }
+        if (System.nanoTime() - start > budgetNanos) {
+            overBudgetFrames++;
+        }
+    }
+
+    /**
+     * Executes every queued operation regardless of the budget.
+     * Used when the world must be complete right away, like at startup.
+     */
+    public void flush() {
+        for (ChunkQueue queue : addQueues) {
+            while (!queue.operations.isEmpty()) {
+                queue.operations.executeNext(adder);
+            }
+        }
+        addQueues.clear();
+        while (!removals.isEmpty()) {
+            removals.executeNext(remover);
+        }
+        for (ChunkQueue queue : suspendQueues) {
+            while (!queue.operations.isEmpty()) {
+                queue.operations.executeNext(suspender);
+            }
+        }
+        suspendQueues.clear();
+    }
+
+    /**
+     * Returns the number of queued operations, additions and removals.
+     * @return the queue depth.
+     */
+    public int queueDepth() {
+        int depth = removals.size();
+        for (ChunkQueue queue : addQueues) {
+            depth += queue.operations.size();
+        }
+        for (ChunkQueue queue : suspendQueues) {
+            depth += queue.operations.size();
+        }
+        return depth;
+    }
+
+    /**
+     * Returns the number of frames whose drain took longer than the budget.
+     * @return the over-budget frame count.
+     */
+    public long overBudgetFrames() {
+        return overBudgetFrames;
+    }
+
+    /**
+     * Finds the queue of a chunk, creating it if nothing is queued for the chunk yet.
+     * @param queues the add or kept-removal queues.
+     * @param chunkId the chunk id.
+     * @return the chunk's queue.
+     */
+    private ChunkQueue queueOf(List<ChunkQueue> queues, int chunkId) {
+        ChunkQueue queue = findQueue(queues, chunkId);
+        if (queue == null) {
+            queue = new ChunkQueue(chunkId);
+            queues.add(queue);
+        }
+        return queue;
+    }
+
+    /**
+     * Finds the queue of a chunk.
+     * @param queues the add or kept-removal queues.
+     * @param chunkId the chunk id.
+     * @return the chunk's queue, or null if nothing is queued for it.
+     */
+    private ChunkQueue findQueue(List<ChunkQueue> queues, int chunkId) {
+        for (ChunkQueue queue : queues) {
+            if (queue.chunkId == chunkId) {
+                return queue;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds the add queue of the chunk whose center is nearest to x.
+     * @param x the focus x coordinate.
+     * @return the nearest chunk's queue, or null if no additions are queued.
+     */
+    private ChunkQueue nearestQueue(float x) {
+        ChunkQueue nearest = null;
+        float nearestDistance = Float.MAX_VALUE;
+        for (ChunkQueue queue : addQueues) {
+            float distance = Math.abs(queue.chunkId * chunkSize + chunkSize / HALF - x);
+            if (distance < nearestDistance) {
+                nearestDistance = distance;
+                nearest = queue;
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * The queued additions, or kept removals, of a single chunk.
+     */
+    private final class ChunkQueue {
+        private final int chunkId;
+        private final OperationQueue operations = new OperationQueue(INITIAL_QUEUE_CAPACITY);
+
+        /**
+         * @param chunkId the chunk id.
+         */
+        private ChunkQueue(int chunkId) {
+            this.chunkId = chunkId;
+        }
+    }
+
+    /**
+     * A growable FIFO of (object, layer) pairs kept in parallel arrays, executed by the caller's
+     * adder or remover.
+     */
+    private final class OperationQueue {
+        private GameObject[] objects;
+        private int[] layers;
+        private int head = 0;
+        private int tail = 0;
+
+        /**
+         * @param capacity the initial capacity.
+         */
+        private OperationQueue(int capacity) {
+            objects = new GameObject[capacity];
+            layers = new int[capacity];
+        }
+
+        /**
+         * Appends an operation.
+         * @param obj the object.
+         * @param layer the layer.
+         */
+        private void push(GameObject obj, int layer) {
+            if (tail == objects.length) {
+                int size = size();
+                GameObject[] newObjects = new GameObject[Math.max(objects.length, size * 2)];
+                int[] newLayers = new int[newObjects.length];
+                System.arraycopy(objects, head, newObjects, 0, size);
+                System.arraycopy(layers, head, newLayers, 0, size);
+                objects = newObjects;
+                layers = newLayers;
+                head = 0;
+                tail = size;
+            }
+            objects[tail] = obj;
+            layers[tail] = layer;
+            tail++;
+        }
+
+        /**
+         * Adds the oldest object and drops it.
+         * @param operation adds the object to the game.
+         */
+        private void executeNext(Flora.GameObjectAdder operation) {
+            GameObject obj = objects[head];
+            int layer = layers[head];
+            dropNext();
+            operation.accept(obj, layer);
+        }
+
+        /**
+         * Removes the oldest object and drops it.
+         * @param operation removes the object from the game.
+         */
+        private void executeNext(Flora.GameObjectRemover operation) {
+            GameObject obj = objects[head];
+            int layer = layers[head];
+            dropNext();
+            operation.accept(obj, layer);
+        }
+
+        /**
+         * Drops the oldest operation.
+         */
+        private void dropNext() {
+            objects[head] = null;
+            head++;
+            if (head == tail) {
+                head = 0;
+                tail = 0;
+            }
+        }
+
+        /**
+         * @return the number of queued operations.
+         */
+        private int size() {
+            return tail - head;
+        }
+
+        /**
+         * @return whether no operation is queued.
+         */
+        private boolean isEmpty() {
+            return head == tail;
+        }
+    }
+}
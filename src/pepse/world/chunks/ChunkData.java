@@ -0,0 +1,70 @@
+package pepse.world.chunks;
+
+import pepse.world.Block;
+import pepse.world.trees.TreeDescriptor;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The immutable, GameObject-free content of one world chunk: the surface height
+ * of every terrain column, and the trees standing on it.
+ * Produced off the game thread by {@link ChunkGenerator} and turned into GameObjects on it.
+ */
+public final class ChunkData {
+    private final int chunkId;
+    private final int startX;
+    private final float[] heights;
+    private final List<TreeDescriptor> trees;
+
+    /**
+     * Constructs the chunk data. The array and list are taken over and must not be modified afterwards.
+     * @param chunkId the chunk id.
+     * @param startX the x coordinate of the chunk's first column.
+     * @param heights the surface height of every column.
+     * @param trees the trees standing in the chunk.
+     */
+    ChunkData(int chunkId, int startX, float[] heights, List<TreeDescriptor> trees) {
+        this.chunkId = chunkId;
+        this.startX = startX;
+        this.heights = heights;
+        this.trees = Collections.unmodifiableList(trees);
+    }
+
+    /**
+     * @return the chunk id.
+     */
+    public int chunkId() {
+        return chunkId;
+    }
+
+    /**
+     * @return the number of terrain columns in the chunk.
+     */
+    public int columnCount() {
+        return heights.length;
+    }
+
+    /**
+     * @param column the column index.
+     * @return the x coordinate of the column.
+     */
+    public int columnX(int column) {
+        return startX + column * Block.SIZE;
+    }
+
+    /**
+     * @param column the column index.
+     * @return the surface height of the column.
+     */
+    public float heightAt(int column) {
+        return heights[column];
+    }
+
+    /**
+     * @return the trees standing in the chunk.
+     */
+    public List<TreeDescriptor> trees() {
+        return trees;
+    }
+}
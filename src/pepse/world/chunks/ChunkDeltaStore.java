@@ -0,0 +1,411 @@
+package pepse.world.chunks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Records how chunks deviate from their procedural baseline, such as fruits that were eaten and
+ * have not regrown yet, so a chunk that is evicted and regenerated comes back as the player left it.
+ * Deltas are appended as fixed-size records to a log in a memory-mapped file. Records of the same
+ * chunk are chained newest first, and an in-memory index maps a chunk id to its newest record, so
+ * applying a chunk's deltas reads its records in place without deserializing the log.
+ * Records that no longer matter are dropped by a compaction that copies the live records to a new
+ * file on a background thread while the game keeps appending to the old one.
+ * All methods must be called from the game thread.
+ */
+public class ChunkDeltaStore {
+    /** A fruit was eaten; the record holds its index in the chunk and when it regrows. */
+    public static final int FRUIT_EATEN = 1;
+
+    private static final int RECORD_BYTES = 24;
+    private static final int CHUNK_ID_OFFSET = 0;
+    private static final int PREVIOUS_OFFSET = 4;
+    private static final int TYPE_OFFSET = 8;
+    private static final int INDEX_OFFSET = 12;
+    private static final int TIME_OFFSET = 16;
+    private static final int NO_RECORD = -1;
+    private static final float COMPACTION_THRESHOLD = 0.5f;
+    private static final String FILE_PREFIX = "pepse-deltas";
+    private static final String FILE_SUFFIX = ".log";
+    private static final String THREAD_NAME = "chunk-delta-compactor";
+
+    private final DoubleSupplier clock;
+    private final ExecutorService compactor;
+    private Log log;
+    private Future<Log> compaction;
+    private int compactionEnd;
+    private int compactionTrigger;
+    private long[] visitedFruits = new long[1];
+    private long compactions = 0;
+
+    /**
+     * Constructs an empty delta store backed by a temporary file.
+     * @param capacityBytes the initial size of the mapped log; it grows when needed.
+     * @param clock returns the current game time in seconds, used to tell expired records.
+     */
+    public ChunkDeltaStore(int capacityBytes, DoubleSupplier clock) {
+        this.clock = clock;
+        this.log = Log.create(Math.max(RECORD_BYTES, capacityBytes - capacityBytes % RECORD_BYTES));
+        this.compactor = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, THREAD_NAME);
+            thread.setDaemon(true);
+            return thread;
+        });
+        compactionTrigger = (int) (log.capacity() * COMPACTION_THRESHOLD);
+    }
+
+    /**
+     * Records that a fruit of a chunk was eaten.
+     * @param chunkId the chunk the fruit belongs to.
+     * @param fruitIndex the fruit's index among the fruits of the chunk, in creation order.
+     * @param regrowTime the game time at which the fruit regrows.
+     */
+    public void recordFruitEaten(int chunkId, int fruitIndex, double regrowTime) {
+        installCompaction(false);
+        if (log.writePosition + RECORD_BYTES > log.capacity()) {
+            installCompaction(true);
+            if (log.writePosition + RECORD_BYTES > log.capacity()) {
+                log.grow();
+                compactionTrigger = (int) (log.capacity() * COMPACTION_THRESHOLD);
+            }
+        }
+        log.append(chunkId, FRUIT_EATEN, fruitIndex, regrowTime);
+        if (compaction == null && log.writePosition > compactionTrigger) {
+            startCompaction();
+        }
+    }
+
+    /**
+     * @param chunkId the chunk id.
+     * @return whether any delta was ever recorded for the chunk.
+     */
+    public boolean hasDeltas(int chunkId) {
+        installCompaction(false);
+        return log.index.get(chunkId) != NO_RECORD;
+    }
+
+    /**
+     * Visits the fruits of a chunk that are eaten and have not regrown yet.
+     * Each fruit is visited at most once, with its latest regrowth time.
+     * @param chunkId the chunk id.
+     * @param visitor receives every eaten fruit.
+     * @return the number of fruits visited.
+     */
+    public int forEachEatenFruit(int chunkId, EatenFruitVisitor visitor) {
+        installCompaction(false);
+        double now = clock.getAsDouble();
+        Arrays.fill(visitedFruits, 0);
+        int visited = 0;
+        ByteBuffer buffer = log.buffer;
+        for (int offset = log.index.get(chunkId); offset != NO_RECORD;
+             offset = buffer.getInt(offset + PREVIOUS_OFFSET)) {
+            if (buffer.getInt(offset + TYPE_OFFSET) != FRUIT_EATEN) {
+                continue;
+            }
+            int fruitIndex = buffer.getInt(offset + INDEX_OFFSET);
+            double regrowTime = buffer.getDouble(offset + TIME_OFFSET);
+            if (regrowTime > now && markVisited(fruitIndex)) {
+                visitor.accept(fruitIndex, regrowTime);
+                visited++;
+            }
+        }
+        return visited;
+    }
+
+    /**
+     * @return the number of bytes of log in use.
+     */
+    public int logSize() {
+        return log.writePosition;
+    }
+
+    /**
+     * @return the number of compactions installed so far.
+     */
+    public long compactions() {
+        return compactions;
+    }
+
+    /**
+     * Marks a fruit index as visited in the current {@link #forEachEatenFruit} call.
+     * @param fruitIndex the fruit index.
+     * @return true if the index was not visited before.
+     */
+    private boolean markVisited(int fruitIndex) {
+        int word = fruitIndex / Long.SIZE;
+        if (word >= visitedFruits.length) {
+            visitedFruits = Arrays.copyOf(visitedFruits, Math.max(word + 1, visitedFruits.length * 2));
+        }
+        long bit = 1L << (fruitIndex % Long.SIZE);
+        if ((visitedFruits[word] & bit) != 0) {
+            return false;
+        }
+        visitedFruits[word] |= bit;
+        return true;
+    }
+
+    /**
+     * Starts compacting the records written so far on the background thread.
+     * Those records are never written again, so the compactor reads them while appends continue.
+     */
+    private void startCompaction() {
+        ByteBuffer records = log.buffer.duplicate();
+        int capacity = log.capacity();
+        int end = log.writePosition;
+        double now = clock.getAsDouble();
+        compactionEnd = end;
+        compaction = compactor.submit(() -> compact(records, capacity, end, now));
+    }
+
+    /**
+     * Installs a finished compaction: the records appended while it ran are copied over and the
+     * compacted log replaces the current one.
+     * @param wait whether to wait for a running compaction to finish.
+     */
+    private void installCompaction(boolean wait) {
+        if (compaction == null || (!wait && !compaction.isDone())) {
+            return;
+        }
+        Log compacted;
+        try {
+            compacted = compaction.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException e) {
+            // keep appending to the current log; the next threshold crossing retries
+            compaction = null;
+            return;
+        }
+        compaction = null;
+        Log old = log;
+        for (int offset = compactionEnd; offset < old.writePosition; offset += RECORD_BYTES) {
+            if (compacted.writePosition + RECORD_BYTES > compacted.capacity()) {
+                compacted.grow();
+            }
+            compacted.copyRecord(old.buffer, offset);
+        }
+        log = compacted;
+        old.close();
+        compactions++;
+        // a log that is mostly live records is not compacted again until it has doubled
+        compactionTrigger = Math.max((int) (log.capacity() * COMPACTION_THRESHOLD), log.writePosition * 2);
+    }
+
+    /**
+     * Copies the records of a log that have not expired into a new log.
+     * Runs on the compactor thread and only reads the source up to the given end.
+     * @param buffer the records of the log to compact.
+     * @param capacity the size of that log's mapping.
+     * @param end the end of the records to compact.
+     * @param now the game time at which the compaction started.
+     * @return the compacted log.
+     */
+    private static Log compact(ByteBuffer buffer, int capacity, int end, double now) {
+        int live = 0;
+        for (int offset = 0; offset < end; offset += RECORD_BYTES) {
+            if (buffer.getDouble(offset + TIME_OFFSET) > now) {
+                live++;
+            }
+        }
+        Log compacted = Log.create(Math.max(capacity, live * RECORD_BYTES * 2));
+        for (int offset = 0; offset < end; offset += RECORD_BYTES) {
+            if (buffer.getDouble(offset + TIME_OFFSET) > now) {
+                compacted.copyRecord(buffer, offset);
+            }
+        }
+        return compacted;
+    }
+
+    /**
+     * Receives the eaten fruits of a chunk.
+     */
+    @FunctionalInterface
+    public interface EatenFruitVisitor {
+        /**
+         * @param fruitIndex the fruit's index among the fruits of the chunk.
+         * @param regrowTime the game time at which the fruit regrows.
+         */
+        void accept(int fruitIndex, double regrowTime);
+    }
+
+    /**
+     * A log file, its mapping and the index of the newest record of every chunk in it.
+     */
+    private static final class Log {
+        private final File file;
+        private final RandomAccessFile access;
+        private MappedByteBuffer buffer;
+        private final ChunkOffsetIndex index = new ChunkOffsetIndex();
+        private int writePosition = 0;
+
+        /**
+         * @param file the log file.
+         * @param access the open file.
+         * @param buffer the file's mapping.
+         */
+        private Log(File file, RandomAccessFile access, MappedByteBuffer buffer) {
+            this.file = file;
+            this.access = access;
+            this.buffer = buffer;
+        }
+
+        /**
+         * Creates a log in a new temporary file.
+         * @param capacity the size of the mapping in bytes.
+         * @return the empty log.
+         */
+        private static Log create(int capacity) {
+            try {
+                File file = File.createTempFile(FILE_PREFIX, FILE_SUFFIX);
+                file.deleteOnExit();
+                RandomAccessFile access = new RandomAccessFile(file, "rw");
+                MappedByteBuffer buffer = access.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+                return new Log(file, access, buffer);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * @return the size of the mapping in bytes.
+         */
+        private int capacity() {
+            return buffer.capacity();
+        }
+
+        /**
+         * Doubles the mapping; the file keeps the records written so far.
+         */
+        private void grow() {
+            try {
+                buffer = access.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, capacity() * 2L);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Appends a record and makes it the newest of its chunk.
+         * @param chunkId the chunk id.
+         * @param type the record type.
+         * @param index the record's index within the chunk.
+         * @param time the record's game time.
+         */
+        private void append(int chunkId, int type, int index, double time) {
+            int offset = writePosition;
+            buffer.putInt(offset + CHUNK_ID_OFFSET, chunkId);
+            buffer.putInt(offset + PREVIOUS_OFFSET, this.index.get(chunkId));
+            buffer.putInt(offset + TYPE_OFFSET, type);
+            buffer.putInt(offset + INDEX_OFFSET, index);
+            buffer.putDouble(offset + TIME_OFFSET, time);
+            this.index.put(chunkId, offset);
+            writePosition += RECORD_BYTES;
+        }
+
+        /**
+         * Appends a copy of a record of another log.
+         * @param source the other log's buffer.
+         * @param offset the record's offset in it.
+         */
+        private void copyRecord(ByteBuffer source, int offset) {
+            append(source.getInt(offset + CHUNK_ID_OFFSET), source.getInt(offset + TYPE_OFFSET),
+                    source.getInt(offset + INDEX_OFFSET), source.getDouble(offset + TIME_OFFSET));
+        }
+
+        /**
+         * Closes and deletes the log file. The mapping is released once it is garbage collected.
+         */
+        private void close() {
+            try {
+                access.close();
+            } catch (IOException e) {
+                // the file is deleted on exit anyway
+            }
+            file.delete();
+        }
+    }
+
+    /**
+     * An open-addressing map from chunk id to record offset, without boxing.
+     */
+    private static final class ChunkOffsetIndex {
+        private static final int INITIAL_CAPACITY = 64;
+        private int[] keys = new int[INITIAL_CAPACITY];
+        private int[] values = new int[INITIAL_CAPACITY];
+        private boolean[] used = new boolean[INITIAL_CAPACITY];
+        private int size = 0;
+
+        /**
+         * @param chunkId the chunk id.
+         * @return the chunk's offset, or {@link #NO_RECORD}.
+         */
+        private int get(int chunkId) {
+            for (int i = slotOf(chunkId, keys.length); used[i]; i = (i + 1) & (keys.length - 1)) {
+                if (keys[i] == chunkId) {
+                    return values[i];
+                }
+            }
+            return NO_RECORD;
+        }
+
+        /**
+         * @param chunkId the chunk id.
+         * @param offset the chunk's new offset.
+         */
+        private void put(int chunkId, int offset) {
+            if ((size + 1) * 2 > keys.length) {
+                rehash();
+            }
+            int i = slotOf(chunkId, keys.length);
+            while (used[i] && keys[i] != chunkId) {
+                i = (i + 1) & (keys.length - 1);
+            }
+            if (!used[i]) {
+                used[i] = true;
+                keys[i] = chunkId;
+                size++;
+            }
+            values[i] = offset;
+        }
+
+        /**
+         * Doubles the table.
+         */
+        private void rehash() {
+            int[] oldKeys = keys;
+            int[] oldValues = values;
+            boolean[] oldUsed = used;
+            keys = new int[oldKeys.length * 2];
+            values = new int[keys.length];
+            used = new boolean[keys.length];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldUsed[i]) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        /**
+         * @param chunkId the chunk id.
+         * @param length the table length, a power of two.
+         * @return the chunk's home slot.
+         */
+        private static int slotOf(int chunkId, int length) {
+            int hash = chunkId * 0x9E3779B9;
+            return (hash ^ (hash >>> 16)) & (length - 1);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package pepse.world.chunks;
+
+import danogl.util.Vector2;
+import pepse.profiling.ChunkGenerateEvent;
+import pepse.world.Block;
+import pepse.world.Terrain;
+import pepse.world.trees.Flora;
+import pepse.world.trees.TreeDescriptor;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates the content of world chunks as immutable {@link ChunkData}, on a pool of worker threads.
+ * Generation is a pure function of the seed and the chunk id: every random draw comes from a generator
+ * seeded by both, so the result does not depend on which thread ran it or when.
+ */
+public class ChunkGenerator {
+    private static final int MAX_WORKER_THREADS = 2;
+    private static final String THREAD_NAME = "chunk-generator-";
+
+    private final Vector2 windowDimensions;
+    private final int chunkSize;
+    private final int columnsPerChunk;
+    private final ExecutorService workers;
+    private final float treeProbability;
+
+    /**
+     * Constructs a chunk generator with its worker pool.
+     * @param windowDimensions the window dimensions, which set the base ground height.
+     * @param chunkSize the width of a chunk in pixels, a multiple of the block size.
+     */
+    public ChunkGenerator(Vector2 windowDimensions, int chunkSize) {
+        this(windowDimensions, chunkSize, Float.NaN);
+    }
+
+    /**
+     * Constructs a chunk generator with its worker pool and a custom tree density.
+     * @param windowDimensions the window dimensions, which set the base ground height.
+     * @param chunkSize the width of a chunk in pixels, a multiple of the block size.
+     * @param treeProbability the probability of a tree standing at a column, or NaN for Flora's default.
+     */
+    public ChunkGenerator(Vector2 windowDimensions, int chunkSize, float treeProbability) {
+        this.treeProbability = treeProbability;
+        this.windowDimensions = windowDimensions;
+        this.chunkSize = chunkSize;
+        // both edges of the chunk are columns, as in Terrain.createInRange
+        this.columnsPerChunk = chunkSize / Block.SIZE + 1;
+        int threads = Math.max(1, Math.min(MAX_WORKER_THREADS,
+                Runtime.getRuntime().availableProcessors() - 1));
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, THREAD_NAME + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Generates a chunk on the worker pool.
+     * @param seed the world seed.
+     * @param chunkId the chunk to generate.
+     * @return a future completed with the chunk's data.
+     */
+    public CompletableFuture<ChunkData> submit(int seed, int chunkId) {
+        return CompletableFuture.supplyAsync(() -> generate(seed, chunkId), workers);
+    }
+
+    /**
+     * Generates a chunk on the calling thread.
+     * @param seed the world seed.
+     * @param chunkId the chunk to generate.
+     * @return the chunk's data.
+     */
+    public ChunkData generate(int seed, int chunkId) {
+        ChunkGenerateEvent event = new ChunkGenerateEvent();
+        event.begin();
+        int chunkSeed = chunkSeed(seed, chunkId);
+        int startX = chunkId * chunkSize;
+
+        float[] heights = new float[columnsPerChunk];
+        sampleHeights(seed, chunkId, heights);
+
+        Flora.TerranGetter chunkHeights = x -> heights[((int) x - startX) / Block.SIZE];
+        Flora flora = Float.isNaN(treeProbability)
+                ? new Flora(chunkHeights, chunkSeed, Float.MAX_VALUE)
+                : new Flora(chunkHeights, chunkSeed, Float.MAX_VALUE, treeProbability);
+        List<TreeDescriptor> trees = flora.planInRange(startX, startX + chunkSize);
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.chunkId = chunkId;
+            event.columnCount = columnsPerChunk;
+            event.treeCount = trees.size();
+            event.commit();
+        }
+        return new ChunkData(chunkId, startX, heights, trees);
+    }
+
+    /**
+     * Samples the surface heights of a chunk's columns.
+     * @param seed the world seed.
+     * @param chunkId the chunk to sample.
+     * @param heights the array to fill, one height per column.
+     */
+    public void sampleHeights(int seed, int chunkId, float[] heights) {
+        new Terrain(windowDimensions, chunkSeed(seed, chunkId)).sampleHeights(chunkId * chunkSize, heights);
+    }
+
+    /**
+     * Derives the seed of a single chunk from the world seed.
+     * @param seed the world seed.
+     * @param chunkId the chunk id.
+     * @return the chunk's seed.
+     */
+    private static int chunkSeed(int seed, int chunkId) {
+        return Objects.hash(chunkId, seed);
+    }
+}
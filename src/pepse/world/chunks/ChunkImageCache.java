@@ -0,0 +1,106 @@
+package pepse.world.chunks;
+
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+import pepse.util.IntLruCache;
+
+/**
+ * Keeps the pre-rasterized terrain images of the most recently committed chunks, so a chunk that is
+ * evicted and committed again reuses its bitmap instead of rasterizing it again.
+ * Bounded: the least recently used image is dropped once the capacity is reached.
+ */
+public class ChunkImageCache {
+    private final IntLruCache<ChunkImage> images;
+    private final Rasterizer rasterizer;
+
+    /**
+     * Constructs an empty cache.
+     * @param capacity the maximal number of chunk images kept.
+     * @param rasterizer draws the terrain image of a chunk.
+     */
+    public ChunkImageCache(int capacity, Rasterizer rasterizer) {
+        this.images = new IntLruCache<>(capacity);
+        this.rasterizer = rasterizer;
+    }
+
+    /**
+     * Returns the terrain image of a chunk, rasterizing it if it is not cached.
+     * @param data the chunk.
+     * @return the chunk's terrain image.
+     */
+    public ChunkImage imageOf(ChunkData data) {
+        ChunkImage image = images.get(data.chunkId());
+        if (image == null) {
+            image = rasterizer.rasterize(data);
+            images.put(data.chunkId(), image);
+        }
+        return image;
+    }
+
+    /**
+     * @return the number of lookups served from the cache.
+     */
+    public long hits() {
+        return images.hits();
+    }
+
+    /**
+     * @return the number of lookups that had to rasterize.
+     */
+    public long misses() {
+        return images.misses();
+    }
+
+    /**
+     * Draws the terrain image of a chunk.
+     */
+    @FunctionalInterface
+    public interface Rasterizer {
+        /**
+         * @param data the chunk.
+         * @return the chunk's terrain image.
+         */
+        ChunkImage rasterize(ChunkData data);
+    }
+
+    /**
+     * A rasterized terrain image and where it is placed in the world.
+     */
+    public static final class ChunkImage {
+        private final Renderable renderable;
+        private final Vector2 topLeft;
+        private final Vector2 dimensions;
+
+        /**
+         * @param renderable the image.
+         * @param topLeft the world position of the image's top-left corner.
+         * @param dimensions the image's size in the world.
+         */
+        public ChunkImage(Renderable renderable, Vector2 topLeft, Vector2 dimensions) {
+            this.renderable = renderable;
+            this.topLeft = topLeft;
+            this.dimensions = dimensions;
+        }
+
+        /**
+         * @return the image.
+         */
+        public Renderable renderable() {
+            return renderable;
+        }
+
+        /**
+         * @return the world position of the image's top-left corner.
+         */
+        public Vector2 topLeft() {
+            return topLeft;
+        }
+
+        /**
+         * @return the image's size in the world.
+         */
+        public Vector2 dimensions() {
+            return dimensions;
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package pepse.world.chunks;
+
+import danogl.GameObject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Stores the chunks around the avatar in a ring buffer indexed by {@code chunkId mod capacity}.
+ * Since the tracked chunks always form a run narrower than the capacity, every chunk has its own
+ * slot: lookups are a single array access, ids are kept as primitive ints, and the lowest and
+ * highest tracked chunks are known, so evicting the trailing edge is O(1).
+ * A slot holds a chunk from the moment its generation is requested, and then all of its terrain
+ * and flora objects together.
+ */
+public class ChunkWindow {
+    private final int capacity;
+    private final int[] chunkIds;
+    private final boolean[] occupied;
+    private final ChunkSlot[] slots;
+    private int lowest = 0;
+    private int highest = -1;
+    private int size = 0;
+
+    /**
+     * Constructs an empty chunk window.
+     * @param capacity the number of slots; must exceed the widest run of chunks ever tracked at once.
+     */
+    public ChunkWindow(int capacity) {
+        this.capacity = capacity;
+        this.chunkIds = new int[capacity];
+        this.occupied = new boolean[capacity];
+        this.slots = new ChunkSlot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new ChunkSlot();
+        }
+    }
+
+    /**
+     * @param chunkId the chunk id.
+     * @return whether the chunk is tracked, either pending generation or resident.
+     */
+    public boolean contains(int chunkId) {
+        int index = indexOf(chunkId);
+        return occupied[index] && chunkIds[index] == chunkId;
+    }
+
+    /**
+     * @param chunkId the chunk id.
+     * @return whether the chunk's objects have been created.
+     */
+    public boolean isResident(int chunkId) {
+        ChunkSlot slot = slot(chunkId);
+        return slot != null && slot.isResident();
+    }
+
+    /**
+     * @param chunkId the chunk id.
+     * @return the chunk's slot, or null if the chunk is not tracked.
+     */
+    public ChunkSlot slot(int chunkId) {
+        return contains(chunkId) ? slots[indexOf(chunkId)] : null;
+    }
+
+    /**
+     * Starts tracking a chunk.
+     * @param chunkId the chunk id.
+     * @return the chunk's empty slot.
+     * @throws IllegalStateException if the chunk's slot is held by another chunk, which means the
+     *                               tracked chunks no longer fit in the capacity.
+     */
+    public ChunkSlot claim(int chunkId) {
+        int index = indexOf(chunkId);
+        if (occupied[index]) {
+            throw new IllegalStateException("chunk " + chunkId + " collides with chunk "
+                    + chunkIds[index] + " in a window of capacity " + capacity);
+        }
+        occupied[index] = true;
+        chunkIds[index] = chunkId;
+        if (size == 0) {
+            lowest = chunkId;
+            highest = chunkId;
+        } else {
+            lowest = Math.min(lowest, chunkId);
+            highest = Math.max(highest, chunkId);
+        }
+        size++;
+        return slots[index];
+    }
+
+    /**
+     * Stops tracking a chunk and clears its slot for reuse.
+     * @param chunkId the chunk id.
+     */
+    public void release(int chunkId) {
+        if (!contains(chunkId)) {
+            return;
+        }
+        int index = indexOf(chunkId);
+        occupied[index] = false;
+        slots[index].clear();
+        size--;
+        if (size == 0) {
+            return;
+        }
+        if (chunkId == lowest) {
+            do {
+                lowest++;
+            } while (!contains(lowest));
+        } else if (chunkId == highest) {
+            do {
+                highest--;
+            } while (!contains(highest));
+        }
+    }
+
+    /**
+     * @return whether no chunk is tracked.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return the number of tracked chunks.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the lowest tracked chunk id; only meaningful when not empty.
+     */
+    public int lowestChunk() {
+        return lowest;
+    }
+
+    /**
+     * @return the highest tracked chunk id; only meaningful when not empty.
+     */
+    public int highestChunk() {
+        return highest;
+    }
+
+    /**
+     * @param chunkId the chunk id.
+     * @return the chunk's slot index.
+     */
+    private int indexOf(int chunkId) {
+        return Math.floorMod(chunkId, capacity);
+    }
+
+    /**
+     * The state of a single tracked chunk: its pending generation, then its GameObjects.
+     */
+    public static final class ChunkSlot {
+        private final List<GameObject> objects = new ArrayList<>();
+        private CompletableFuture<ChunkData> pending;
+        private int terrainCount = 0;
+        private boolean resident = false;
+        private boolean dormant = false;
+        private int generation = 0;
+        private int failedAttempts = 0;
+        private int retryFrame = 0;
+
+        /**
+         * @param pending the chunk's generation in progress.
+         */
+        public void setPending(CompletableFuture<ChunkData> pending) {
+            this.pending = pending;
+        }
+
+        /**
+         * @return the chunk's generation in progress, or null if it is not pending.
+         */
+        public CompletableFuture<ChunkData> pending() {
+            return pending;
+        }
+
+        /**
+         * Stores the chunk's created objects, terrain first, in the order they are added to the game.
+         * @param terrainObjects the chunk's terrain blocks.
+         * @param floraObjects the chunk's trunks, leaves and fruits.
+         */
+        public void commit(List<? extends GameObject> terrainObjects, List<? extends GameObject> floraObjects) {
+            pending = null;
+            objects.addAll(terrainObjects);
+            objects.addAll(floraObjects);
+            terrainCount = terrainObjects.size();
+            resident = true;
+        }
+
+        /**
+         * Drops a generation that failed and records when it may be tried again.
+         * @param retryFrame the first frame the chunk may be generated again on.
+         */
+        public void recordFailure(int retryFrame) {
+            pending = null;
+            failedAttempts++;
+            this.retryFrame = retryFrame;
+        }
+
+        /**
+         * @return how many times in a row the chunk's generation failed.
+         */
+        public int failedAttempts() {
+            return failedAttempts;
+        }
+
+        /**
+         * @param frame the current frame.
+         * @return whether the chunk's generation failed and may be tried again on this frame.
+         */
+        public boolean isRetryDue(int frame) {
+            return failedAttempts > 0 && pending == null && !resident && frame >= retryFrame;
+        }
+
+        /**
+         * @return whether the chunk's objects have been created.
+         */
+        public boolean isResident() {
+            return resident;
+        }
+
+        /**
+         * @return the chunk's objects, terrain first, in the order they were added.
+         */
+        public List<GameObject> objects() {
+            return objects;
+        }
+
+        /**
+         * @return how many of the first objects are terrain blocks.
+         */
+        public int terrainCount() {
+            return terrainCount;
+        }
+
+        /**
+         * @return whether the chunk's objects are out of the game while it is far from the camera.
+         */
+        public boolean isDormant() {
+            return dormant;
+        }
+
+        /**
+         * @param dormant whether the chunk's objects are out of the game.
+         */
+        public void setDormant(boolean dormant) {
+            this.dormant = dormant;
+        }
+
+        /**
+         * Returns a number that changes whenever the slot is emptied, so a callback scheduled for
+         * a chunk can tell whether the slot still holds that same chunk.
+         * @return the slot's generation.
+         */
+        public int generation() {
+            return generation;
+        }
+
+        /**
+         * Empties the slot.
+         */
+        private void clear() {
+            generation++;
+            objects.clear();
+            pending = null;
+            terrainCount = 0;
+            resident = false;
+            dormant = false;
+            failedAttempts = 0;
+            retryFrame = 0;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package pepse.world.chunks;
+
+import pepse.util.IntLruCache;
+import pepse.world.Block;
+
+/**
+ * Caches the terrain surface heights of whole chunks, one float array per chunk id,
+ * so each column's height is sampled from the noise only once while its chunk is cached.
+ * The least recently used chunk is evicted when the cache is full, and its array is recycled.
+ */
+public class HeightmapCache {
+    private final IntLruCache<float[]> cache;
+    private final ChunkSampler sampler;
+    private final int chunkSize;
+    private final int columnsPerChunk;
+    private float[] spare;
+
+    /**
+     * Functional interface for sampling the surface heights of a chunk.
+     */
+    @FunctionalInterface
+    public interface ChunkSampler {
+        /**
+         * Fills the heights of the chunk's columns, from its left edge, one block apart.
+         * @param chunkId the chunk to sample.
+         * @param heights the array to fill, one entry per column.
+         */
+        void sample(int chunkId, float[] heights);
+    }
+
+    /**
+     * Constructs an empty heightmap cache.
+     * @param capacity the maximal number of chunks kept.
+     * @param chunkSize the width of a chunk in pixels, a multiple of the block size.
+     * @param sampler computes the heights of a chunk on a miss.
+     */
+    public HeightmapCache(int capacity, int chunkSize, ChunkSampler sampler) {
+        this.cache = new IntLruCache<>(capacity);
+        this.sampler = sampler;
+        this.chunkSize = chunkSize;
+        // both edges of the chunk are columns, as in Terrain.createInRange
+        this.columnsPerChunk = chunkSize / Block.SIZE + 1;
+    }
+
+    /**
+     * Returns the cache's own heights of a chunk, sampling them on a miss.
+     * The array may be recycled for another chunk by the next miss, so it must not be kept.
+     * @param chunkId the chunk id.
+     * @return the heights of the chunk's columns from its left edge.
+     */
+    private float[] cachedHeights(int chunkId) {
+        float[] heights = cache.get(chunkId);
+        if (heights == null) {
+            heights = spare != null ? spare : new float[columnsPerChunk];
+            sampler.sample(chunkId, heights);
+            spare = cache.put(chunkId, heights);
+        }
+        return heights;
+    }
+
+    /**
+     * Caches the heights of a generated chunk, so they need not be sampled again.
+     * @param data the generated chunk.
+     */
+    public void store(ChunkData data) {
+        if (cache.contains(data.chunkId())) {
+            return;
+        }
+        float[] heights = spare != null ? spare : new float[columnsPerChunk];
+        for (int column = 0; column < columnsPerChunk; column++) {
+            heights[column] = data.heightAt(column);
+        }
+        spare = cache.put(data.chunkId(), heights);
+    }
+
+    /**
+     * Returns the surface height of the column containing x.
+     * @param x the x coordinate.
+     * @return the surface height at x.
+     */
+    public float heightAt(float x) {
+        int chunkId = (int) Math.floor(x / chunkSize);
+        int column = (int) ((x - (float) chunkId * chunkSize) / Block.SIZE);
+        return cachedHeights(chunkId)[column];
+    }
+
+    /**
+     * Returns the highest ground among the terrain columns drawn at the column containing x.
+     * A chunk's last column is drawn at the same x as the next chunk's first one, with the
+     * previous chunk's seed, so at a chunk edge both are considered.
+     * @param x the x coordinate.
+     * @return the smallest surface height (y grows downwards) of the columns at x.
+     */
+    public float surfaceHeightAt(float x) {
+        int chunkId = (int) Math.floor(x / chunkSize);
+        int column = (int) ((x - (float) chunkId * chunkSize) / Block.SIZE);
+        float height = cachedHeights(chunkId)[column];
+        if (column == 0) {
+            height = Math.min(height, cachedHeights(chunkId - 1)[columnsPerChunk - 1]);
+        }
+        return height;
+    }
+
+    /**
+     * Returns the number of chunk lookups served from the cache.
+     * @return the hit count.
+     */
+    public long hits() {
+        return cache.hits();
+    }
+
+    /**
+     * Returns the number of chunk lookups that had to sample the noise.
+     * @return the miss count.
+     */
+    public long misses() {
+        return cache.misses();
+    }
+}
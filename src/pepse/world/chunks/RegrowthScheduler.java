@@ -0,0 +1,207 @@
+package pepse.world.chunks;
+
+import pepse.world.trees.Fruit;
+
+import java.util.Arrays;
+
+/**
+ * Regrows eaten chunk fruits after a delay, for all fruits from one hierarchical timing wheel
+ * instead of a ScheduledTask per fruit. It follows the game time it is given, rather than keeping
+ * its own, so it runs faster or skips ahead with the game clock. Time advances in ticks; the inner wheel has a slot for each
+ * of the next {@value #SLOTS} ticks, and the outer wheel a slot for each following run of
+ * {@value #SLOTS} ticks, which is moved into the inner wheel when its run begins. Scheduling and
+ * expiring a regrowth are O(1), and the entries live in parallel arrays that are reused.
+ * Regrowth is bound to the chunk slot the fruit was created in: once the chunk is evicted its
+ * entries are dropped, and the fruit is never touched again; the chunk's delta log keeps the
+ * fruit eaten until its regrowth time, so a regenerated chunk schedules it again.
+ */
+public class RegrowthScheduler {
+    private static final int WHEEL_BITS = 6;
+    private static final int SLOTS = 1 << WHEEL_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int NONE = -1;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final float tickSeconds;
+    private final RegrowthHandler handler;
+    private final int[] innerHeads = new int[SLOTS];
+    private final int[] outerHeads = new int[SLOTS];
+
+    private Fruit[] fruits = new Fruit[INITIAL_CAPACITY];
+    private ChunkWindow.ChunkSlot[] chunkSlots = new ChunkWindow.ChunkSlot[INITIAL_CAPACITY];
+    private int[] generations = new int[INITIAL_CAPACITY];
+    private long[] expiries = new long[INITIAL_CAPACITY];
+    private int[] next = new int[INITIAL_CAPACITY];
+    private int freeHead = NONE;
+    private int used = 0;
+    private int pending = 0;
+    private int linked = 0;
+    private long currentTick = 0;
+    private double now = 0;
+
+    /**
+     * Functional interface for bringing a regrown fruit back.
+     */
+    @FunctionalInterface
+    public interface RegrowthHandler {
+        /**
+         * Called when a fruit's regrowth time is reached and its chunk is still the same.
+         * @param fruit the fruit, still in the eaten state.
+         * @param slot the slot of the fruit's chunk.
+         */
+        void regrow(Fruit fruit, ChunkWindow.ChunkSlot slot);
+    }
+
+    /**
+     * Constructs an empty scheduler.
+     * @param tickSeconds the length of a tick; regrowth happens up to a tick late.
+     * @param handler brings regrown fruits back.
+     */
+    public RegrowthScheduler(float tickSeconds, RegrowthHandler handler) {
+        this.tickSeconds = tickSeconds;
+        this.handler = handler;
+        Arrays.fill(innerHeads, NONE);
+        Arrays.fill(outerHeads, NONE);
+    }
+
+    /**
+     * Schedules the regrowth of an eaten fruit.
+     * @param fruit the eaten fruit.
+     * @param slot the slot of the fruit's chunk.
+     * @param delay the seconds until the fruit regrows.
+     */
+    public void schedule(Fruit fruit, ChunkWindow.ChunkSlot slot, float delay) {
+        int entry = allocate();
+        fruits[entry] = fruit;
+        chunkSlots[entry] = slot;
+        generations[entry] = slot.generation();
+        long expiry = (long) Math.ceil((now + delay) / tickSeconds);
+        expiries[entry] = Math.max(currentTick + 1, expiry);
+        insert(entry);
+        pending++;
+        linked++;
+    }
+
+    /**
+     * Drops the regrowth of every fruit of an evicted chunk, so the scheduler holds no reference
+     * to objects the pool may hand to other chunks.
+     * @param slot the slot the chunk was in.
+     */
+    public void cancelChunk(ChunkWindow.ChunkSlot slot) {
+        for (int entry = 0; entry < used; entry++) {
+            if (chunkSlots[entry] == slot && fruits[entry] != null) {
+                fruits[entry] = null;
+                chunkSlots[entry] = null;
+                pending--;
+            }
+        }
+    }
+
+    /**
+     * Advances to a game time and regrows the fruits whose time has come. When the wheels are
+     * empty, the ticks in between are skipped at once, so a long jump in time costs nothing.
+     * @param time the game time, in seconds; never less than the last time given.
+     */
+    public void advanceTo(double time) {
+        now = time;
+        long targetTick = (long) Math.floor(time / tickSeconds);
+        while (currentTick < targetTick) {
+            if (linked == 0) {
+                currentTick = targetTick;
+                break;
+            }
+            tick();
+        }
+    }
+
+    /**
+     * @return the number of fruits waiting to regrow.
+     */
+    public int pending() {
+        return pending;
+    }
+
+    /**
+     * Moves on to the next tick: at the start of a run of ticks, the outer slot of the run is
+     * spread over the inner wheel; then the inner slot of the tick expires.
+     */
+    private void tick() {
+        currentTick++;
+        int innerSlot = (int) (currentTick & SLOT_MASK);
+        if (innerSlot == 0) {
+            int outerSlot = (int) ((currentTick >>> WHEEL_BITS) & SLOT_MASK);
+            int entry = outerHeads[outerSlot];
+            outerHeads[outerSlot] = NONE;
+            while (entry != NONE) {
+                int following = next[entry];
+                insert(entry);
+                entry = following;
+            }
+        }
+        int entry = innerHeads[innerSlot];
+        innerHeads[innerSlot] = NONE;
+        while (entry != NONE) {
+            int following = next[entry];
+            expire(entry);
+            entry = following;
+        }
+    }
+
+    /**
+     * Regrows the fruit of an expired entry, unless its chunk was evicted, and frees the entry.
+     * @param entry the entry.
+     */
+    private void expire(int entry) {
+        Fruit fruit = fruits[entry];
+        ChunkWindow.ChunkSlot slot = chunkSlots[entry];
+        fruits[entry] = null;
+        chunkSlots[entry] = null;
+        next[entry] = freeHead;
+        freeHead = entry;
+        linked--;
+        if (fruit != null) {
+            pending--;
+            if (slot.generation() == generations[entry]) {
+                handler.regrow(fruit, slot);
+            }
+        }
+    }
+
+    /**
+     * Links an entry into the inner wheel if it expires within the next {@value #SLOTS} ticks,
+     * and into the outer wheel otherwise.
+     * @param entry the entry.
+     */
+    private void insert(int entry) {
+        long expiry = expiries[entry];
+        if (expiry - currentTick < SLOTS) {
+            int slot = (int) (expiry & SLOT_MASK);
+            next[entry] = innerHeads[slot];
+            innerHeads[slot] = entry;
+        } else {
+            int slot = (int) ((expiry >>> WHEEL_BITS) & SLOT_MASK);
+            next[entry] = outerHeads[slot];
+            outerHeads[slot] = entry;
+        }
+    }
+
+    /**
+     * @return a free entry, growing the arrays if there is none.
+     */
+    private int allocate() {
+        if (freeHead != NONE) {
+            int entry = freeHead;
+            freeHead = next[entry];
+            return entry;
+        }
+        if (used == fruits.length) {
+            int capacity = used * 2;
+            fruits = Arrays.copyOf(fruits, capacity);
+            chunkSlots = Arrays.copyOf(chunkSlots, capacity);
+            generations = Arrays.copyOf(generations, capacity);
+            expiries = Arrays.copyOf(expiries, capacity);
+            next = Arrays.copyOf(next, capacity);
+        }
+        return used++;
+    }
+}
@@ -0,0 +1,178 @@
+package pepse.world.chunks;
+
+/**
+ * Decides which part of the world should be resident around a moving focus.
+ * The load window reaches further ahead of the avatar the faster it runs and shrinks behind it,
+ * while chunks are only evicted once they are a hysteresis margin beyond the load window, so
+ * turning around does not immediately throw away and regenerate what was just behind.
+ * Also counts how often a chunk was needed on screen before it had finished generating.
+ */
+public class StreamingWindow {
+    // the time constant of the velocity smoothing; about a factor of 0.1 per frame at 60 FPS
+    private static final float SMOOTHING_SECONDS = 0.16f;
+    private static final float DIRECTION_HOLD_TIME = 0.3f;
+    private static final float MIN_DIRECTION_VELOCITY = 1f;
+    private static final int MAX_VISIBLE_CHUNKS = 16;
+
+    private final float baseBuffer;
+    private final float minTrailingBuffer;
+    private final float lookaheadSeconds;
+    private final float hysteresis;
+    private final int chunkSize;
+
+    private float smoothedVelocity = 0;
+    private int direction = 0;
+    private int candidateDirection = 0;
+    private float candidateTime = 0;
+
+    private int[] lateChunkIds = new int[MAX_VISIBLE_CHUNKS];
+    private int[] previousLateChunkIds = new int[MAX_VISIBLE_CHUNKS];
+    private int lateCount = 0;
+    private int previousLateCount = 0;
+    private long lateChunks = 0;
+    private long lateFrames = 0;
+
+    /**
+     * Constructs a streaming window.
+     * @param chunkSize the width of a chunk in pixels.
+     * @param baseBuffer how far to load on both sides when standing still.
+     * @param minTrailingBuffer how far to load behind the avatar while it runs.
+     * @param lookaheadSeconds how many seconds of running the load window reaches ahead.
+     * @param hysteresis how far beyond the load window a chunk must be before it is evicted.
+     */
+    public StreamingWindow(int chunkSize, float baseBuffer, float minTrailingBuffer,
+                           float lookaheadSeconds, float hysteresis) {
+        this.chunkSize = chunkSize;
+        this.baseBuffer = baseBuffer;
+        this.minTrailingBuffer = minTrailingBuffer;
+        this.lookaheadSeconds = lookaheadSeconds;
+        this.hysteresis = hysteresis;
+    }
+
+    /**
+     * Feeds the avatar's horizontal velocity for this frame.
+     * The velocity is smoothed over time, independently of the frame rate, and the running
+     * direction only changes after the new direction was held for a short while.
+     * @param velocityX the horizontal velocity in pixels per second.
+     * @param deltaTime the time since the last frame.
+     */
+    public void update(float velocityX, float deltaTime) {
+        float smoothing = 1 - (float) Math.exp(-deltaTime / SMOOTHING_SECONDS);
+        smoothedVelocity += (velocityX - smoothedVelocity) * smoothing;
+        int observed = Math.abs(smoothedVelocity) < MIN_DIRECTION_VELOCITY ? 0 :
+                (int) Math.signum(smoothedVelocity);
+        if (observed == direction) {
+            candidateTime = 0;
+            return;
+        }
+        if (observed != candidateDirection) {
+            candidateDirection = observed;
+            candidateTime = 0;
+        }
+        candidateTime += deltaTime;
+        if (candidateTime >= DIRECTION_HOLD_TIME) {
+            direction = candidateDirection;
+            candidateTime = 0;
+        }
+    }
+
+    /**
+     * @param focusX the avatar's x coordinate.
+     * @return the leftmost x coordinate that should be loaded.
+     */
+    public float loadMinX(float focusX) {
+        return focusX - (direction < 0 ? leadingBuffer() : trailingBuffer());
+    }
+
+    /**
+     * @param focusX the avatar's x coordinate.
+     * @return the rightmost x coordinate that should be loaded.
+     */
+    public float loadMaxX(float focusX) {
+        return focusX + (direction > 0 ? leadingBuffer() : trailingBuffer());
+    }
+
+    /**
+     * Returns whether a resident chunk is far enough outside the load window to be evicted.
+     * @param chunkId the chunk id.
+     * @param focusX the avatar's x coordinate.
+     * @return true if the chunk should be evicted.
+     */
+    public boolean shouldEvict(int chunkId, float focusX) {
+        float chunkStartX = (float) chunkId * chunkSize;
+        return chunkStartX + chunkSize < loadMinX(focusX) - hysteresis
+                || chunkStartX > loadMaxX(focusX) + hysteresis;
+    }
+
+    /**
+     * @return the running direction: 1 for right, -1 for left, 0 when standing still.
+     */
+    public int direction() {
+        return direction;
+    }
+
+    /**
+     * Records that a chunk is on screen but not generated yet.
+     * Call for every such chunk once per frame, then {@link #endFrame}.
+     * @param chunkId the missing chunk.
+     */
+    public void reportMissing(int chunkId) {
+        if (lateCount == lateChunkIds.length) {
+            return;
+        }
+        lateChunkIds[lateCount++] = chunkId;
+        for (int i = 0; i < previousLateCount; i++) {
+            if (previousLateChunkIds[i] == chunkId) {
+                return;
+            }
+        }
+        lateChunks++;
+    }
+
+    /**
+     * Closes the frame's missing-chunk reports.
+     */
+    public void endFrame() {
+        if (lateCount > 0) {
+            lateFrames++;
+        }
+        int[] swap = previousLateChunkIds;
+        previousLateChunkIds = lateChunkIds;
+        lateChunkIds = swap;
+        previousLateCount = lateCount;
+        lateCount = 0;
+    }
+
+    /**
+     * @return how many times a chunk was on screen before it had finished generating.
+     */
+    public long lateChunks() {
+        return lateChunks;
+    }
+
+    /**
+     * @return how many frames showed at least one chunk that had not finished generating.
+     */
+    public long lateFrames() {
+        return lateFrames;
+    }
+
+    /**
+     * @return how far the window reaches ahead of the avatar.
+     */
+    private float leadingBuffer() {
+        return baseBuffer + Math.abs(smoothedVelocity) * lookaheadSeconds;
+    }
+
+    /**
+     * @return how far the window reaches behind the avatar.
+     */
+    private float trailingBuffer() {
+        if (direction == 0) {
+            return baseBuffer;
+        }
+        // shrink towards the minimum as the avatar picks up speed
+        float speedShare = Math.min(1f, Math.abs(smoothedVelocity) * lookaheadSeconds / baseBuffer);
+        return baseBuffer - (baseBuffer - minTrailingBuffer) * speedShare;
+    }
+}
@@ -0,0 +1,125 @@
+package pepse.world.chunks;
+
+/**
+ * Puts the resident chunks that are far outside the camera's view to sleep, and wakes them up
+ * when they come back near the view. A dormant chunk keeps its objects but they are taken out of
+ * the game, so their components do not tick and they are neither rendered nor collided with.
+ * The work is done chunk by chunk through a {@link DormancyHandler}; this class only decides
+ * which chunks are dormant and counts the live and dormant objects.
+ */
+public class VisibilityManager {
+    private static final float HALF = 2f;
+
+    private final int chunkSize;
+    private final float halfViewWidth;
+    private final float margin;
+    private final DormancyHandler handler;
+
+    private int liveChunks = 0;
+    private int dormantChunks = 0;
+    private int liveObjects = 0;
+    private int dormantObjects = 0;
+
+    /**
+     * Moves a chunk's objects out of and back into the game.
+     */
+    public interface DormancyHandler {
+        /**
+         * Takes a live chunk's objects out of the game.
+         * @param chunkId the chunk.
+         * @param slot the chunk's slot.
+         */
+        void suspend(int chunkId, ChunkWindow.ChunkSlot slot);
+
+        /**
+         * Puts a dormant chunk's objects back into the game.
+         * @param chunkId the chunk.
+         * @param slot the chunk's slot.
+         */
+        void resume(int chunkId, ChunkWindow.ChunkSlot slot);
+    }
+
+    /**
+     * Constructs a visibility manager for a camera.
+     * @param chunkSize the width of a chunk in pixels.
+     * @param viewWidth the width of the camera's view in pixels.
+     * @param margin how far beyond the view a chunk still stays live, which must cover the
+     *               furthest a chunk's objects reach past its edges.
+     * @param handler suspends and resumes chunks.
+     */
+    public VisibilityManager(int chunkSize, float viewWidth, float margin, DormancyHandler handler) {
+        this.chunkSize = chunkSize;
+        this.halfViewWidth = viewWidth / HALF;
+        this.margin = margin;
+        this.handler = handler;
+    }
+
+    /**
+     * Suspends the resident chunks that left the view and its margin, and resumes those that
+     * entered it. Call after new chunks are committed and before their objects are added, so a
+     * chunk committed off-screen goes to sleep before any of its objects enter the game.
+     * @param window the tracked chunks.
+     * @param cameraCenterX the x coordinate of the camera's center.
+     */
+    public void update(ChunkWindow window, float cameraCenterX) {
+        liveChunks = 0;
+        dormantChunks = 0;
+        liveObjects = 0;
+        dormantObjects = 0;
+        if (window.isEmpty()) {
+            return;
+        }
+        float liveMinX = cameraCenterX - halfViewWidth - margin;
+        float liveMaxX = cameraCenterX + halfViewWidth + margin;
+        for (int chunkId = window.lowestChunk(); chunkId <= window.highestChunk(); chunkId++) {
+            ChunkWindow.ChunkSlot slot = window.slot(chunkId);
+            if (slot == null || !slot.isResident()) {
+                continue;
+            }
+            float chunkMinX = (float) chunkId * chunkSize;
+            boolean visible = chunkMinX + chunkSize >= liveMinX && chunkMinX <= liveMaxX;
+            if (visible && slot.isDormant()) {
+                handler.resume(chunkId, slot);
+                slot.setDormant(false);
+            } else if (!visible && !slot.isDormant()) {
+                handler.suspend(chunkId, slot);
+                slot.setDormant(true);
+            }
+            if (slot.isDormant()) {
+                dormantChunks++;
+                dormantObjects += slot.objects().size();
+            } else {
+                liveChunks++;
+                liveObjects += slot.objects().size();
+            }
+        }
+    }
+
+    /**
+     * @return the number of resident chunks that were live after the last update.
+     */
+    public int liveChunks() {
+        return liveChunks;
+    }
+
+    /**
+     * @return the number of resident chunks that were dormant after the last update.
+     */
+    public int dormantChunks() {
+        return dormantChunks;
+    }
+
+    /**
+     * @return the number of objects of the live chunks after the last update.
+     */
+    public int liveObjects() {
+        return liveObjects;
+    }
+
+    /**
+     * @return the number of objects of the dormant chunks after the last update.
+     */
+    public int dormantObjects() {
+        return dormantObjects;
+    }
+}
@@ -0,0 +1,202 @@
+package pepse.world.daynight;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+
+/**
+ * The game's time of day. It owns the simulated time, and every frame places the sun on its
+ * orbit, the halo around the sun and sets the night's opacity, in one pass and without allocating:
+ * the sun's path and the night's opacity over a day are sampled into tables once, and read by
+ * interpolating between neighbouring samples.
+ * Anything that depends on the day-night cycle reads this clock instead of keeping its own timer.
+ * The clock can run faster or slower than real time, and can skip ahead, for tests.
+ * A day starts at noon, with the sun at the top of its orbit and no night overlay; midnight is
+ * half a day later.
+ */
+public class DayNightClock {
+    private static final int TABLE_SIZE = 360;
+    private static final float HALF = 2f;
+    private static final float SMOOTHSTEP_SQUARE = 3f;
+    private static final float SMOOTHSTEP_CUBE = 2f;
+
+    private final float cycleLength;
+    private final float[] sunSin = new float[TABLE_SIZE + 1];
+    private final float[] sunCos = new float[TABLE_SIZE + 1];
+    private final float[] nightOpacity = new float[TABLE_SIZE + 1];
+    private final GameObject sun;
+    private final GameObject halo;
+    private final GameObject night;
+    private final float orbitCenterX;
+    private final float orbitCenterY;
+    private final float orbitRadius;
+    private final float sunHalfWidth;
+    private final float sunHalfHeight;
+    private final float haloHalfWidth;
+    private final float haloHalfHeight;
+
+    private double time = 0;
+    private float timeScale = 1f;
+
+    /**
+     * Constructs a clock that only keeps time, driving no objects.
+     * @param cycleLength the length of a day, in seconds.
+     */
+    public DayNightClock(float cycleLength) {
+        this(cycleLength, null, Vector2.ZERO, 0, null, null);
+    }
+
+    /**
+     * Constructs a clock driving the sun, its halo and the night overlay, and places them for noon.
+     * @param cycleLength the length of a day, in seconds.
+     * @param sun the sun, moved around its orbit once a day; may be null.
+     * @param orbitCenter the center of the sun's orbit, in the sun's coordinate space.
+     * @param orbitRadius the radius of the sun's orbit.
+     * @param halo the sun's halo, kept centered on the sun; may be null.
+     * @param night the night overlay, whose opacity follows the time of day; may be null.
+     */
+    public DayNightClock(float cycleLength, GameObject sun, Vector2 orbitCenter, float orbitRadius,
+                         GameObject halo, GameObject night) {
+        this.cycleLength = cycleLength;
+        this.sun = sun;
+        this.halo = halo;
+        this.night = night;
+        this.orbitCenterX = orbitCenter.x();
+        this.orbitCenterY = orbitCenter.y();
+        this.orbitRadius = orbitRadius;
+        this.sunHalfWidth = sun == null ? 0 : sun.getDimensions().x() / HALF;
+        this.sunHalfHeight = sun == null ? 0 : sun.getDimensions().y() / HALF;
+        this.haloHalfWidth = halo == null ? 0 : halo.getDimensions().x() / HALF;
+        this.haloHalfHeight = halo == null ? 0 : halo.getDimensions().y() / HALF;
+        for (int i = 0; i <= TABLE_SIZE; i++) {
+            float dayFraction = (float) i / TABLE_SIZE;
+            double angle = 2 * Math.PI * dayFraction;
+            sunSin[i] = (float) Math.sin(angle);
+            sunCos[i] = (float) Math.cos(angle);
+            // the night darkens towards midnight and clears towards noon, easing in and out
+            float towardsMidnight = dayFraction < 1 / HALF
+                    ? dayFraction * HALF : (1 - dayFraction) * HALF;
+            nightOpacity[i] = Night.MIDNIGHT_OPACITY * towardsMidnight * towardsMidnight
+                    * (SMOOTHSTEP_SQUARE - SMOOTHSTEP_CUBE * towardsMidnight);
+        }
+        apply();
+    }
+
+    /**
+     * Advances the time by a frame, scaled by the time scale, and updates the sun, halo and night.
+     * @param deltaTime the time since the last frame, in real seconds.
+     */
+    public void update(float deltaTime) {
+        time += deltaTime * timeScale;
+        apply();
+    }
+
+    /**
+     * Jumps ahead in time, and updates the sun, halo and night.
+     * @param seconds the simulated seconds to skip; not negative.
+     */
+    public void skip(double seconds) {
+        time += seconds;
+        apply();
+    }
+
+    /**
+     * Jumps ahead to the next time the day reaches the given fraction, and updates the sun, halo
+     * and night. Skipping to the current time of day skips a whole day.
+     * @param dayFraction the fraction of the day to skip to, in [0,1); 0 is noon, 0.5 midnight.
+     */
+    public void skipTo(float dayFraction) {
+        double seconds = (dayFraction - timeOfDay()) * cycleLength;
+        skip(seconds > 0 ? seconds : seconds + cycleLength);
+    }
+
+    /**
+     * Sets how many simulated seconds pass per real second.
+     * @param timeScale the time scale; 1 is real time, 0 stops the clock.
+     */
+    public void setTimeScale(float timeScale) {
+        this.timeScale = timeScale;
+    }
+
+    /**
+     * @return how many simulated seconds pass per real second.
+     */
+    public float timeScale() {
+        return timeScale;
+    }
+
+    /**
+     * @return the simulated seconds since the game started.
+     */
+    public double time() {
+        return time;
+    }
+
+    /**
+     * @return the length of a day, in simulated seconds.
+     */
+    public float cycleLength() {
+        return cycleLength;
+    }
+
+    /**
+     * @return the number of whole days since the game started.
+     */
+    public long day() {
+        return (long) Math.floor(time / cycleLength);
+    }
+
+    /**
+     * @return the fraction of the current day that passed, in [0,1); 0 is noon, 0.5 midnight.
+     */
+    public float timeOfDay() {
+        float fraction = (float) (time / cycleLength - Math.floor(time / cycleLength));
+        // rounding can reach 1 just before a new day
+        return fraction < 1 ? fraction : 0;
+    }
+
+    /**
+     * @return the opacity of the night overlay now, 0 at noon up to its maximum at midnight.
+     */
+    public float nightOpacity() {
+        return sample(nightOpacity, timeOfDay());
+    }
+
+    /**
+     * @return whether the sun is below the horizontal through its orbit's center.
+     */
+    public boolean isNight() {
+        return sample(sunCos, timeOfDay()) < 0;
+    }
+
+    /**
+     * Places the sun, the halo and sets the night's opacity for the current time.
+     */
+    private void apply() {
+        float dayFraction = timeOfDay();
+        if (sun != null) {
+            // the sun starts above the orbit's center and turns clockwise on screen
+            float centerX = orbitCenterX + orbitRadius * sample(sunSin, dayFraction);
+            float centerY = orbitCenterY - orbitRadius * sample(sunCos, dayFraction);
+            sun.transform().setTopLeftCorner(centerX - sunHalfWidth, centerY - sunHalfHeight);
+            if (halo != null) {
+                halo.transform().setTopLeftCorner(centerX - haloHalfWidth, centerY - haloHalfHeight);
+            }
+        }
+        if (night != null) {
+            night.renderer().setOpaqueness(sample(nightOpacity, dayFraction));
+        }
+    }
+
+    /**
+     * Reads a table at a fraction of the day, interpolating between the neighbouring samples.
+     * @param table the table, sampled at TABLE_SIZE + 1 equally spaced fractions including 1.
+     * @param dayFraction the fraction of the day, in [0,1).
+     * @return the interpolated value.
+     */
+    private static float sample(float[] table, float dayFraction) {
+        float position = dayFraction * TABLE_SIZE;
+        int index = Math.min((int) position, TABLE_SIZE - 1);
+        float weight = position - index;
+        return table[index] + (table[index + 1] - table[index]) * weight;
+    }
+}
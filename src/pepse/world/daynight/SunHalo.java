@@ -8,7 +8,8 @@ import java.awt.Color;
 
 /**
  * A class responsible for creating the sun halo GameObject.
- * The halo is a semi-transparent yellow circle that surrounds the sun.
+ * The halo is a semi-transparent yellow circle that surrounds the sun;
+ * the {@link DayNightClock} keeps it centered on the sun.
  */
 public class SunHalo {
     /** Tag used to identify the sun halo object. */
@@ -35,11 +36,6 @@ public class SunHalo {
         // Match coordinate space
         halo.setCoordinateSpace(sun.getCoordinateSpace());
         halo.setTag(SUN_HALO_TAG);
-        halo.addComponent(deltaTime -> {
-            Vector2 newTopLeft = sun.getCenter().subtract(
-                    halo.getDimensions().mult(RELATIVE_POSITION));
-            halo.setTopLeftCorner(newTopLeft);
-        });
         return halo;
     }
 }
@@ -2,16 +2,15 @@ package pepse.world.trees;
 
 import danogl.GameObject;
 import danogl.collisions.Layer;
-import danogl.gui.rendering.RectangleRenderable;
 import danogl.util.Vector2;
 import pepse.util.ColorSupplier;
+import pepse.util.RandomSequence;
 import pepse.world.Block;
+import pepse.world.WorldObjectPool;
 
 import java.awt.Color;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
-import java.util.Objects;
 
 /**
  * Manages the creation and placement of trees in the game world with consistent generation.
@@ -19,17 +18,26 @@ import java.util.Objects;
  * and creates the necessary tree components (trunk and leaves).
  */
 public class Flora {
+    /** The size of a crown cell, which holds a leaf or a fruit. */
+    static final int CELL_SIZE = Block.SIZE;
     private static final float HALF_SIZE = 2f;
-    private static final String COMMA_SEP = ",";
-    private static final int LEAVES_LAYER = Layer.DEFAULT - 1;
-    private static final int FRUIT_LAYER = Layer.DEFAULT;
-    private static final int TRUNK_LAYER = Layer.STATIC_OBJECTS;
+    /** The layer of the leaves, right behind the avatar and the fruits. */
+    public static final int LEAVES_LAYER = Layer.DEFAULT - 1;
+    /** The layer of the fruits, the avatar's. */
+    public static final int FRUIT_LAYER = Layer.DEFAULT;
+    /** The layer of the trunks, which the avatar collides with. */
+    public static final int TRUNK_LAYER = Layer.STATIC_OBJECTS;
     private final TerranGetter terrain;
     private final int baseSeed;
     private final float playerStartX;
 
     private static final Color TRUNK_BASE_COLOR = new Color(100, 50, 20);
     private static final Color LEAF_BASE_COLOR = new Color(50, 200, 30);
+    private static final int COLOR_VARIANTS = 16;
+    private static final ColorSupplier.Palette TRUNK_PALETTE =
+            ColorSupplier.palette(TRUNK_BASE_COLOR, COLOR_VARIANTS);
+    private static final ColorSupplier.Palette LEAF_PALETTE =
+            ColorSupplier.palette(LEAF_BASE_COLOR, COLOR_VARIANTS);
     private static final float TREE_PROBABILITY = 0.1f;
     private static final int MIN_TRUNK_HEIGHT_BLOCKS = 4;
     private static final int MAX_TRUNK_HEIGHT_BLOCKS = 7;
@@ -41,6 +49,8 @@ public class Flora {
     private static final int PLAYER_SAFE_ZONE_BLOCKS = 2;
     private final GameObjectRemover remover;
     private final GameObjectAdder adder;
+    private final WorldObjectPool pool;
+    private final TreePlacement placement;
 
     /**
      * Constructs a Flora object.
@@ -52,11 +62,64 @@ public class Flora {
      */
     public Flora(GameObjectAdder adder, GameObjectRemover remover,
                  TerranGetter terrainGetter, int seed, float playerStartX) {
+        this(adder, remover, terrainGetter, seed, playerStartX, null);
+    }
+
+    /**
+     * Constructs a Flora object that reuses pooled trunks, leaves and fruits when creating trees.
+     * @param adder A function that adds a GameObject to the game.
+     * @param remover A function that removes a GameObject from the game.
+     * @param terrainGetter A function that returns the terrain height at a given x-coordinate.
+     * @param seed A seed for random number generation to ensure repeatable tree placement.
+     * @param playerStartX The starting X position of the player character.
+     * @param pool The pool to take tree objects from, or null to always create new ones.
+     */
+    public Flora(GameObjectAdder adder, GameObjectRemover remover,
+                 TerranGetter terrainGetter, int seed, float playerStartX, WorldObjectPool pool) {
+        this(adder, remover, terrainGetter, seed, playerStartX, pool, TREE_PROBABILITY);
+    }
+
+    /**
+     * Constructs a Flora object with a custom tree density.
+     * @param adder A function that adds a GameObject to the game.
+     * @param remover A function that removes a GameObject from the game.
+     * @param terrainGetter A function that returns the terrain height at a given x-coordinate.
+     * @param seed A seed for random number generation to ensure repeatable tree placement.
+     * @param playerStartX The starting X position of the player character.
+     * @param pool The pool to take tree objects from, or null to always create new ones.
+     * @param treeProbability The probability of a tree standing at a column.
+     */
+    public Flora(GameObjectAdder adder, GameObjectRemover remover, TerranGetter terrainGetter,
+                 int seed, float playerStartX, WorldObjectPool pool, float treeProbability) {
+        this.placement = new TreePlacement(seed, treeProbability);
         this.terrain = terrainGetter;
         this.adder = adder;
         this.remover = remover;
         this.baseSeed = seed;
         this.playerStartX = playerStartX;
+        this.pool = pool;
+    }
+
+    /**
+     * Constructs a Flora object that only plans trees, see {@link #planInRange}.
+     * Such a Flora holds no adder or remover and cannot create tree GameObjects.
+     * @param terrainGetter A function that returns the terrain height at a given x-coordinate.
+     * @param seed A seed for random number generation to ensure repeatable tree placement.
+     * @param playerStartX The starting X position of the player character.
+     */
+    public Flora(TerranGetter terrainGetter, int seed, float playerStartX) {
+        this(terrainGetter, seed, playerStartX, TREE_PROBABILITY);
+    }
+
+    /**
+     * Constructs a Flora object that only plans trees, with a custom tree density.
+     * @param terrainGetter A function that returns the terrain height at a given x-coordinate.
+     * @param seed A seed for random number generation to ensure repeatable tree placement.
+     * @param playerStartX The starting X position of the player character.
+     * @param treeProbability The probability of a tree standing at a column.
+     */
+    public Flora(TerranGetter terrainGetter, int seed, float playerStartX, float treeProbability) {
+        this(null, null, terrainGetter, seed, playerStartX, null, treeProbability);
     }
 
     /**
@@ -69,52 +132,198 @@ public class Flora {
      * @return A list of all GameObjects created for the trees (trunks and leaves).
      */
     public List<GameObject> createInRange(int minX, int maxX) {
-        List<GameObject> allTreeObjects = new ArrayList<>();
+        return createTrees(planInRange(minX, maxX));
+    }
+
+    /**
+     * Plans the trees within a specified horizontal range without creating any GameObject.
+     * Placement and shape depend only on the seed and the terrain, and colors only on positions,
+     * so planning is fully reproducible and safe off the game thread.
+     *
+     * @param minX The minimum x-coordinate for tree placement (inclusive).
+     * @param maxX The maximum x-coordinate for tree placement (exclusive).
+     * @return A descriptor for every tree in the range.
+     */
+    public List<TreeDescriptor> planInRange(int minX, int maxX) {
+        List<TreeDescriptor> trees = new ArrayList<>();
 
         int startX = (int) (Math.floor((float) minX / Block.SIZE) * Block.SIZE);
         int endX = (int) (Math.ceil((float) maxX / Block.SIZE) * Block.SIZE);
 
-        for (int x = startX; x < endX; x += Block.SIZE) {
+        RandomSequence positionRandom = new RandomSequence();
+        for (int x = placement.nextTreeX(startX, endX); x != TreePlacement.NO_TREE;
+             x = placement.nextTreeX(x + Block.SIZE, endX)) {
             if (isInPlayerSafeZone(x)) {
                 continue;
             }
 
-            Random positionRandom = new Random(Objects.hash(x, baseSeed));
+            positionRandom.reseed(RandomSequence.hash(x, baseSeed));
+            // the first draw is the one TreePlacement tested; the tree's shape follows it
+            positionRandom.nextFloat();
+            trees.add(planTree(x, positionRandom));
+        }
+        return trees;
+    }
 
-            if (positionRandom.nextFloat() < TREE_PROBABILITY) {
-                float groundHeight = terrain.accept(x);
-                int trunkHeightBlocks =
-                        positionRandom.nextInt(MAX_TRUNK_HEIGHT_BLOCKS - MIN_TRUNK_HEIGHT_BLOCKS + 1)
-                                + MIN_TRUNK_HEIGHT_BLOCKS;
-                int trunkHeightPixels = trunkHeightBlocks * Block.SIZE;
+    /**
+     * Returns the placement deciding which columns have a tree, e.g. to find the tree nearest
+     * to a position. It ignores the player's safe zone.
+     * @return The tree placement.
+     */
+    public TreePlacement treePlacement() {
+        return placement;
+    }
 
-                Vector2 trunkTopLeft = new Vector2(x, groundHeight - trunkHeightPixels);
+    /**
+     * Creates the trunk, leaf and fruit GameObjects of the given trees and adds them to the game.
+     *
+     * @param trees The trees to create.
+     * @return A list of all GameObjects created for the trees (trunks, leaves and fruits).
+     */
+    public List<GameObject> createTrees(List<TreeDescriptor> trees) {
+        return createTrees(trees, adder);
+    }
 
-                // Create Trunk
-                GameObject trunk = Trunk.create(
-                        trunkTopLeft,
-                        new Vector2(Block.SIZE, trunkHeightPixels),
-                        new RectangleRenderable(ColorSupplier.approximateColor(TRUNK_BASE_COLOR))
-                );
-                adder.accept(trunk, TRUNK_LAYER);
-                allTreeObjects.add(trunk);
+    /**
+     * Creates the trunk, leaf and fruit GameObjects of the given trees and hands them to the given
+     * adder, in the order of the returned list. Fruits still use this Flora's remover when they are
+     * eaten.
+     *
+     * @param trees The trees to create.
+     * @param treeAdder Receives every created GameObject with its layer.
+     * @return A list of all GameObjects created for the trees (trunks, leaves and fruits).
+     */
+    public List<GameObject> createTrees(List<TreeDescriptor> trees, GameObjectAdder treeAdder) {
+        return createTrees(trees, treeAdder, null);
+    }
 
-                List<GameObject> leaves = createLeafCrown(trunkTopLeft, positionRandom);
-                for (GameObject leaf : leaves) {
-                    adder.accept(leaf, LEAVES_LAYER);
-                    allTreeObjects.add(leaf);
-                }
+    /**
+     * Creates the trunk, leaf and fruit GameObjects of the given trees and hands them to the given
+     * adder, in the order of the returned list, and hands the leaves to a wind group to sway them.
+     *
+     * @param trees The trees to create.
+     * @param treeAdder Receives every created GameObject with its layer.
+     * @param windGroup Receives every leaf with its sway delay, or null to leave the leaves still.
+     * @return A list of all GameObjects created for the trees (trunks, leaves and fruits).
+     */
+    public List<GameObject> createTrees(List<TreeDescriptor> trees, GameObjectAdder treeAdder,
+                                        WindField.LeafGroup windGroup) {
+        List<GameObject> allTreeObjects = new ArrayList<>();
+        for (TreeDescriptor tree : trees) {
+            // Create Trunk
+            GameObject trunk = Trunk.create(
+                    tree.trunkTopLeft(),
+                    new Vector2(Block.SIZE, tree.trunkHeight()),
+                    TRUNK_PALETTE.renderable(tree.trunkVariant()),
+                    pool
+            );
+            treeAdder.accept(trunk, TRUNK_LAYER);
+            allTreeObjects.add(trunk);
 
-                List<Fruit> fruits = createFruits(leaves, trunkTopLeft, positionRandom);
-                for (Fruit fruit : fruits) {
-                    adder.accept(fruit, FRUIT_LAYER);
-                    allTreeObjects.add(fruit);
+            for (int i = 0; i < tree.leafCount(); i++) {
+                GameObject leaf = Leaf.create(
+                        tree.leafPosition(i),
+                        new Vector2(Block.SIZE, Block.SIZE),
+                        LEAF_PALETTE.renderable(tree.leafVariant(i)),
+                        pool
+                );
+                if (windGroup != null) {
+                    windGroup.add(leaf, tree.leafDelay(i));
                 }
+                treeAdder.accept(leaf, LEAVES_LAYER);
+                allTreeObjects.add(leaf);
+            }
+
+            for (int i = 0; i < tree.fruitCount(); i++) {
+                Fruit fruit = pool == null
+                        ? new Fruit(tree.fruitPosition(i), remover, tree.fruitColor(i))
+                        : pool.acquireFruit(tree.fruitPosition(i), remover, tree.fruitColor(i));
+                treeAdder.accept(fruit, FRUIT_LAYER);
+                allTreeObjects.add(fruit);
             }
         }
         return allTreeObjects;
     }
 
+    /**
+     * Returns the layer a tree GameObject created by this class lives in.
+     * @param treeObject A trunk, leaf or fruit.
+     * @return The object's layer.
+     */
+    public static int layerOf(GameObject treeObject) {
+        if (treeObject instanceof Fruit) {
+            return FRUIT_LAYER;
+        }
+        return Trunk.TRUNK_TAG.equals(treeObject.getTag()) ? TRUNK_LAYER : LEAVES_LAYER;
+    }
+
+    /**
+     * Plans a single tree standing at the given column.
+     * @param x The x-coordinate of the trunk.
+     * @param positionRandom The random sequence of this specific tree.
+     * @return The tree's descriptor.
+     */
+    private TreeDescriptor planTree(int x, RandomSequence positionRandom) {
+        float groundHeight = terrain.accept(x);
+        int trunkHeightBlocks =
+                positionRandom.nextInt(MAX_TRUNK_HEIGHT_BLOCKS - MIN_TRUNK_HEIGHT_BLOCKS + 1)
+                        + MIN_TRUNK_HEIGHT_BLOCKS;
+        int trunkHeightPixels = trunkHeightBlocks * Block.SIZE;
+
+        float trunkTopY = groundHeight - trunkHeightPixels;
+        int trunkVariant = TRUNK_PALETTE.variantAt(x, (int) trunkTopY);
+
+        int crownTopY = (int) trunkTopY - (LEAF_CROWN_SIZE_BLOCKS - 1) * CELL_SIZE;
+        int crownLeftX = x - (LEAF_CROWN_SIZE_BLOCKS / (int) HALF_SIZE) * CELL_SIZE
+                + (int) (CELL_SIZE / HALF_SIZE);
+        int leafMask = createLeafCrown(positionRandom);
+        int fruitMask = 0;
+        int orangeFruitMask = 0;
+        // Go through all crown cells and place fruits in the ones without a leaf
+        for (int cell = 0; cell < LEAF_CROWN_SIZE_BLOCKS * LEAF_CROWN_SIZE_BLOCKS; cell++) {
+            if ((leafMask & (1 << cell)) == 0 && positionRandom.nextFloat() < FRUIT_PROBABILITY_PER_LEAF) {
+                fruitMask |= 1 << cell;
+                // Randomly choose between red and orange fruit color
+                if (!positionRandom.nextBoolean()) {
+                    orangeFruitMask |= 1 << cell;
+                }
+            }
+        }
+
+        return new TreeDescriptor(x, trunkTopY, trunkHeightPixels, trunkVariant,
+                crownLeftX, crownTopY, LEAF_CROWN_SIZE_BLOCKS,
+                leafMask, fruitMask, orangeFruitMask, baseSeed);
+    }
+
+    /**
+     * Returns the palette variant of the leaf in a crown cell.
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     * @return The leaf's variant.
+     */
+    static int leafVariantAt(int x, int y) {
+        return LEAF_PALETTE.variantAt(x, y);
+    }
+
+    /**
+     * Returns the wind delay of the leaf in a crown cell, which depends only on its position.
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     * @param seed The seed the tree was planned with.
+     * @return The leaf's delay, see {@link Leaf#initialDelay}.
+     */
+    static float leafDelayAt(int x, int y, int seed) {
+        return Leaf.initialDelay(RandomSequence.hash(x, y, seed));
+    }
+
+    /**
+     * @param orange Whether the fruit is orange rather than red.
+     * @return The fruit's color.
+     */
+    static Color fruitColor(boolean orange) {
+        return orange ? ORANGE_FRUIT_COLOR : RED_FRUIT_COLOR;
+    }
+
     /**
      * Checks whether a given position is within the avatar's safe zone.
      * @param x The position to check.
@@ -136,78 +345,19 @@ public class Flora {
     }
 
     /**
-     * Creates the square crown of leaves for a tree with consistent generation.
+     * Picks the cells of the square crown that hold a leaf, with consistent generation.
      *
-     * @param trunkTopLeft The top-left corner of the trunk.
-     * @param random       The random generator for this specific tree.
-     * @return A list of Leaf GameObjects.
-     */
-    private List<GameObject> createLeafCrown(Vector2 trunkTopLeft, Random random) {
-        List<GameObject> leaves = new ArrayList<>();
-        int crownSize = LEAF_CROWN_SIZE_BLOCKS;
-        int crownTopY = (int) trunkTopLeft.y() - (crownSize - 1) * Block.SIZE;
-        int crownLeftX = (int) trunkTopLeft.x() - (crownSize / (int) HALF_SIZE) *
-                Block.SIZE + (int) (Block.SIZE / HALF_SIZE);
-
-        for (int row = 0; row < crownSize; row++) {
-            for (int col = 0; col < crownSize; col++) {
-                if (random.nextFloat() < LEAF_PROBABILITY) {
-                    Vector2 leafTopLeft = new Vector2(crownLeftX + col * Block.SIZE,
-                            crownTopY + row * Block.SIZE);
-
-                    Random leafRandom = new Random(Objects.hash(
-                            (int)leafTopLeft.x(), (int)leafTopLeft.y(), baseSeed));
-
-                    GameObject leaf = Leaf.create(
-                            leafTopLeft,
-                            new Vector2(Block.SIZE, Block.SIZE),
-                            new RectangleRenderable(ColorSupplier.approximateColor(LEAF_BASE_COLOR)),
-                            leafRandom
-                    );
-                    leaves.add(leaf);
-                }
-            }
-        }
-        return leaves;
-    }
-
-    /**
-     * Creates fruits positioned in empty spaces within the crown grid with consistent generation.
-     * @param leaves The list of leaves in the crown.
-     * @param trunkTopLeft The top-left corner of the trunk for reference.
-     * @param random The random generator for this specific tree.
-     * @return A list of Fruit GameObjects.
+     * @param random The random sequence of this specific tree.
+     * @return The leaf cells, one bit per cell in row-major order.
      */
-    private List<Fruit> createFruits(List<GameObject> leaves, Vector2 trunkTopLeft, Random random) {
-        List<Fruit> fruits = new ArrayList<>();
-        int crownSize = LEAF_CROWN_SIZE_BLOCKS;
-        int crownTopY = (int) trunkTopLeft.y() - (crownSize - 1) * Block.SIZE;
-        int crownLeftX = (int) trunkTopLeft.x() - (crownSize / (int)HALF_SIZE)
-                * Block.SIZE + (int) (Block.SIZE / HALF_SIZE);
-        // Create a set of occupied positions by leaves
-        java.util.Set<String> leafPositions = new java.util.HashSet<>();
-        for (GameObject leaf : leaves) {
-            Vector2 leafPos = leaf.getTopLeftCorner();
-            leafPositions.add(leafPos.x() + "," + leafPos.y());
-        }
-        // Go through all crown positions and place fruits in empty spots
-        for (int row = 0; row < crownSize; row++) {
-            for (int col = 0; col < crownSize; col++) {
-                Vector2 gridPosition = new Vector2(crownLeftX + col * Block.SIZE,
-                        crownTopY + row * Block.SIZE);
-                String positionKey = gridPosition.x() + COMMA_SEP + gridPosition.y();
-
-                // Only place fruit if this position is empty (no leaf) and random chance succeeds
-                if (!leafPositions.contains(positionKey) && random.nextFloat() < FRUIT_PROBABILITY_PER_LEAF) {
-                    // Randomly choose between red and orange fruit color
-                    Color fruitColor = random.nextBoolean() ? RED_FRUIT_COLOR : ORANGE_FRUIT_COLOR;
-
-                    Fruit fruit = new Fruit(gridPosition, adder,remover, fruitColor);
-                    fruits.add(fruit);
-                }
+    private static int createLeafCrown(RandomSequence random) {
+        int leafMask = 0;
+        for (int cell = 0; cell < LEAF_CROWN_SIZE_BLOCKS * LEAF_CROWN_SIZE_BLOCKS; cell++) {
+            if (random.nextFloat() < LEAF_PROBABILITY) {
+                leafMask |= 1 << cell;
             }
         }
-        return fruits;
+        return leafMask;
     }
 
     /**
@@ -3,19 +3,18 @@ package pepse.world.trees;
 import danogl.GameObject;
 import danogl.collisions.Collision;
 import danogl.collisions.Layer;
-import danogl.components.ScheduledTask;
 import danogl.gui.rendering.OvalRenderable;
+import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
-import pepse.PepseGameManager;
 import pepse.world.Avatar;
 import pepse.world.Block;
 
 import java.awt.Color;
-import java.util.Random; // Import Random for choosing fruit color
+import java.util.Objects;
 
 /**
  * Represents a fruit that can be collected by the avatar for an energy boost.
- * Fruits reappear after a certain amount of time after being collected.
+ * An eaten fruit is handed to its {@link EatenListener}, which decides when it reappears.
  */
 public class Fruit extends GameObject {
 
@@ -26,23 +25,22 @@ public class Fruit extends GameObject {
 
     private static final Color RED_FRUIT_COLOR = Color.RED;
     private static final Color ORANGE_FRUIT_COLOR = new Color(255, 165, 0);
+    private static final Renderable RED_FRUIT_RENDERABLE = new OvalRenderable(RED_FRUIT_COLOR);
+    private static final Renderable ORANGE_FRUIT_RENDERABLE = new OvalRenderable(ORANGE_FRUIT_COLOR);
     private static final String FRUIT_TAG = "fruit";
     private static final int ENERGY_BOOST = 10;
-    private final Flora.GameObjectAdder adder;
     private final Flora.GameObjectRemover remover;
     private boolean isEaten = false;
+    private EatenListener eatenListener;
 
     /**
      * @param topLeftCorner The position of the fruit in the game world.
      *                       The fruit will be rendered as a circle with this size.
-     * @param adder The function to add a GameObject to the game world.
-     *              This function is used to reappear the fruit after it is eaten.
      * @param remover The function to remove a GameObject from the game world.
      *                This function is used to remove the fruit when it is eaten.
      */
-    public Fruit(Vector2 topLeftCorner, Flora.GameObjectAdder adder, Flora.GameObjectRemover remover) {
-    super(topLeftCorner, new Vector2(SIZE, SIZE), new OvalRenderable(RED_FRUIT_COLOR));
-        this.adder = adder;
+    public Fruit(Vector2 topLeftCorner, Flora.GameObjectRemover remover) {
+    super(topLeftCorner, new Vector2(SIZE, SIZE), RED_FRUIT_RENDERABLE);
         this.remover = remover;
         setTag(FRUIT_TAG);
 
@@ -54,20 +52,79 @@ public class Fruit extends GameObject {
      *
      * @param topLeftCorner The position of the fruit in the game world.
      *                       The fruit will be rendered as a circle with this size.
-     * @param adder The function to add a GameObject to the game world.
-     *              This function is used to reappear the fruit after it is eaten.
      * @param remover The function to remove a GameObject from the game world.
      *                This function is used to remove the fruit when it is eaten.
      * @param fruitColor The color of this fruit.
      */
-    public Fruit(Vector2 topLeftCorner, Flora.GameObjectAdder adder,
-                 Flora.GameObjectRemover remover, Color fruitColor) {
-        super(topLeftCorner, new Vector2(SIZE, SIZE), new OvalRenderable(fruitColor));
-        this.adder = adder;
+    public Fruit(Vector2 topLeftCorner, Flora.GameObjectRemover remover, Color fruitColor) {
+        super(topLeftCorner, new Vector2(SIZE, SIZE), renderableFor(fruitColor));
         this.remover = remover;
         setTag(FRUIT_TAG);
     }
 
+    /**
+     * Returns the fruit to an uneaten state at a new position, so it can be reused.
+     *
+     * @param topLeftCorner The new position of the fruit.
+     * @param fruitColor The new color of the fruit.
+     */
+    public void reset(Vector2 topLeftCorner, Color fruitColor) {
+        setTopLeftCorner(topLeftCorner);
+        renderer().setRenderable(renderableFor(fruitColor));
+        isEaten = false;
+        eatenListener = null;
+    }
+
+    /**
+     * Hands the fruit's reappearance over to a listener. Eating the fruit only removes it and
+     * notifies the listener, which is then responsible for calling {@link #regrow()} and adding
+     * the fruit back. A fruit must have a listener before it is added to the game, and again
+     * after every {@link #reset}.
+     *
+     * @param listener Notified when the fruit is eaten.
+     */
+    public void setEatenListener(EatenListener listener) {
+        this.eatenListener = Objects.requireNonNull(listener);
+    }
+
+    /**
+     * Puts the fruit in the eaten state without an avatar eating it, for a fruit that was eaten
+     * before its chunk was regenerated.
+     */
+    public void markEaten() {
+        isEaten = true;
+    }
+
+    /**
+     * @return Whether the fruit is eaten and waiting to regrow.
+     */
+    public boolean isEaten() {
+        return isEaten;
+    }
+
+    /**
+     * Makes an eaten fruit edible again, so it can be added back to the game.
+     */
+    public void regrow() {
+        isEaten = false;
+    }
+
+    /**
+     * Returns a renderable for the given fruit color, shared between fruits of the usual colors.
+     *
+     * @param fruitColor The fruit color.
+     * @return An oval renderable of that color.
+     */
+    private static Renderable renderableFor(Color fruitColor) {
+        if (RED_FRUIT_COLOR.equals(fruitColor)) {
+            return RED_FRUIT_RENDERABLE;
+        }
+        if (ORANGE_FRUIT_COLOR.equals(fruitColor)) {
+            return ORANGE_FRUIT_RENDERABLE;
+        }
+        return new OvalRenderable(fruitColor);
+    }
+
 
     /**
      * Defines the behavior of the fruit upon collision with another GameObject.
@@ -79,25 +136,29 @@ public class Fruit extends GameObject {
     public void onCollisionEnter(GameObject other, Collision collision) {
         super.onCollisionEnter(other, collision);
         if (!isEaten && other.getTag().equals("avatar")) {
+            // checked first, so a fruit that cannot regrow is never taken out of the game
+            if (eatenListener == null) {
+                throw new IllegalStateException("fruit eaten without an eaten listener");
+            }
             isEaten = true;
             Avatar avatar = (Avatar) other;
             avatar.addEnergy(ENERGY_BOOST);
 
             remover.accept(this, Layer.DEFAULT);
-
-            // When the fruit reappears, make it randomly red or orange
-            new ScheduledTask(
-                    avatar,
-                    PepseGameManager.CYCLE_LENGTH,
-                    false,
-                    () -> {
-                        // Randomly choose between red and orange for the new fruit
-                        Random random = new Random();
-                        Color newFruitColor = random.nextBoolean() ? RED_FRUIT_COLOR : ORANGE_FRUIT_COLOR;
-                        Fruit newFruit = new Fruit(this.getTopLeftCorner(), adder,remover, newFruitColor);
-                        adder.accept(newFruit, Layer.DEFAULT);
-                    }
-            );
+            eatenListener.onEaten(this);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Functional interface notified when a fruit is eaten.
+     */
+    @FunctionalInterface
+    public interface EatenListener {
+        /**
+         * Called after the fruit was eaten and removed from the game.
+         *
+         * @param fruit the eaten fruit
+         */
+        void onEaten(Fruit fruit);
+    }
+}
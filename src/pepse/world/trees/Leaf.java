@@ -3,24 +3,17 @@ package pepse.world.trees;
 import danogl.GameObject;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
-import danogl.components.ScheduledTask;
-import danogl.components.Transition;
 import danogl.components.GameObjectPhysics;
+import pepse.util.RandomSequence;
 import pepse.world.Block;
-
-import java.util.Random;
+import pepse.world.WorldObjectPool;
 
 /**
  * Represents a single leaf on a tree.
- * It has a visual representation and animates with subtle wind movements.
+ * It has a visual representation; its wind movement is driven by the {@link WindField}.
  */
 public class Leaf  {
 
-    private static final float MIN_ANGLE = -5f;
-    private static final float MAX_ANGLE = 5f;
-    private static final float MIN_WIDTH_FACTOR = 0.9f;
-    private static final float MAX_WIDTH_FACTOR = 1.1f;
-    private static final float TRANSITION_TIME = 2f;
     private static final float MAX_INITIAL_DELAY = 1f;
     private static final String TAG_LEAF = "leaf";
 
@@ -30,56 +23,35 @@ public class Leaf  {
      * @param topLeftCorner The top-left position of the leaf.
      * @param dimensions The dimensions of the leaf.
      * @param renderable The visual representation of the leaf.
-     * @param random A Random object for varied animation timings.
+     */
+    public static GameObject create(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable) {
+        return create(topLeftCorner, dimensions, renderable, null);
+    }
+
+    /**
+     * Constructs a new Leaf object, reusing a pooled block when one is free.
+     * @param topLeftCorner The top-left position of the leaf.
+     * @param dimensions The dimensions of the leaf.
+     * @param renderable The visual representation of the leaf.
+     * @param pool The pool to take the block from, or null to create a new one.
      */
     public static GameObject create(Vector2 topLeftCorner, Vector2 dimensions,
-                                    Renderable renderable, Random random) {
-        GameObject leaf = new Block(topLeftCorner, renderable);
+                                    Renderable renderable, WorldObjectPool pool) {
+        GameObject leaf = pool == null ? new Block(topLeftCorner, renderable)
+                : pool.acquireBlock(WorldObjectPool.Kind.LEAF, topLeftCorner, renderable);
 
         leaf.setDimensions(dimensions);
         leaf.setTag(TAG_LEAF);
         leaf.physics().setMass(GameObjectPhysics.IMMOVABLE_MASS);
-        startWindAnimation(random, leaf,dimensions);
         return leaf;
     }
 
     /**
-     * Initiates the wind animation for the leaf with a random delay.
-     * This uses ScheduledTask to delay the start of the Transition.
+     * Derives the delay before a leaf starts swaying in the wind from the leaf's seed.
+     * @param seed The leaf's seed, for varied animation timings.
+     * @return the delay in seconds.
      */
-    private static void startWindAnimation(Random random, GameObject leaf,
-                                           Vector2 originalDimensions) {
-        float initialDelay = random.nextFloat() * MAX_INITIAL_DELAY;
-
-        new ScheduledTask(
-                leaf,
-                initialDelay,
-                false,
-                () -> {
-                    new Transition<>(
-                            leaf,
-                            (angle) -> leaf.renderer().setRenderableAngle(angle),
-                            MIN_ANGLE,
-                            MAX_ANGLE,
-                            Transition.CUBIC_INTERPOLATOR_FLOAT,
-                            TRANSITION_TIME,
-                            Transition.TransitionType.TRANSITION_BACK_AND_FORTH,
-                            null
-                    );
-
-                    new Transition<>(
-                            leaf,
-                            (widthFactor) ->
-                                    leaf.setDimensions(new Vector2(originalDimensions.x() * widthFactor,
-                                            originalDimensions.y())),
-                            MIN_WIDTH_FACTOR,
-                            MAX_WIDTH_FACTOR,
-                            Transition.CUBIC_INTERPOLATOR_FLOAT,
-                            TRANSITION_TIME,
-                            Transition.TransitionType.TRANSITION_BACK_AND_FORTH,
-                            null
-                    );
-                }
-        );
+    public static float initialDelay(int seed) {
+        return RandomSequence.firstFloat(seed) * MAX_INITIAL_DELAY;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,166 @@
+package pepse.world.trees;
+
+import danogl.util.Vector2;
+
+import java.awt.Color;
+
+/**
+ * An immutable description of a single tree: its trunk, its leaves and its fruit slots.
+ * Descriptors hold no GameObjects, so they can be planned off the game thread and turned
+ * into trunk, leaf and fruit objects later by {@link Flora#createTrees}.
+ * The crown is a square grid of cells, and which cells hold a leaf or a fruit is kept as bit
+ * masks, one bit per cell in row-major order, so a descriptor is a handful of primitives.
+ * Leaves and fruits are indexed in row-major order of their cells; positions, palette variants
+ * and wind delays are derived from the cells when asked for.
+ */
+public final class TreeDescriptor {
+    private final int trunkX;
+    private final float trunkTopY;
+    private final int trunkHeight;
+    private final int trunkVariant;
+    private final int crownLeftX;
+    private final int crownTopY;
+    private final int crownSize;
+    private final int leafMask;
+    private final int fruitMask;
+    private final int orangeFruitMask;
+    private final int seed;
+
+    /**
+     * Constructs a tree descriptor.
+     * @param trunkX The x-coordinate of the trunk.
+     * @param trunkTopY The y-coordinate of the trunk's top.
+     * @param trunkHeight The trunk height in pixels.
+     * @param trunkVariant The trunk's palette variant.
+     * @param crownLeftX The x-coordinate of the crown's left column of cells.
+     * @param crownTopY The y-coordinate of the crown's top row of cells.
+     * @param crownSize The number of cells on a side of the crown.
+     * @param leafMask The cells holding a leaf.
+     * @param fruitMask The cells holding a fruit.
+     * @param orangeFruitMask The fruit cells whose fruit is orange rather than red.
+     * @param seed The seed the tree was planned with, which also sets its leaves' wind delays.
+     */
+    TreeDescriptor(int trunkX, float trunkTopY, int trunkHeight, int trunkVariant,
+                   int crownLeftX, int crownTopY, int crownSize,
+                   int leafMask, int fruitMask, int orangeFruitMask, int seed) {
+        this.trunkX = trunkX;
+        this.trunkTopY = trunkTopY;
+        this.trunkHeight = trunkHeight;
+        this.trunkVariant = trunkVariant;
+        this.crownLeftX = crownLeftX;
+        this.crownTopY = crownTopY;
+        this.crownSize = crownSize;
+        this.leafMask = leafMask;
+        this.fruitMask = fruitMask;
+        this.orangeFruitMask = orangeFruitMask;
+        this.seed = seed;
+    }
+
+    /**
+     * @return The top-left corner of the trunk.
+     */
+    public Vector2 trunkTopLeft() {
+        return new Vector2(trunkX, trunkTopY);
+    }
+
+    /**
+     * @return The trunk height in pixels.
+     */
+    public int trunkHeight() {
+        return trunkHeight;
+    }
+
+    /**
+     * @return The trunk's palette variant.
+     */
+    public int trunkVariant() {
+        return trunkVariant;
+    }
+
+    /**
+     * @return The number of leaves in the crown.
+     */
+    public int leafCount() {
+        return Integer.bitCount(leafMask);
+    }
+
+    /**
+     * @param leaf The leaf index.
+     * @return The top-left corner of the leaf.
+     */
+    public Vector2 leafPosition(int leaf) {
+        int cell = cellOf(leafMask, leaf);
+        return new Vector2(cellX(cell), cellY(cell));
+    }
+
+    /**
+     * @param leaf The leaf index.
+     * @return The palette variant of the leaf.
+     */
+    public int leafVariant(int leaf) {
+        int cell = cellOf(leafMask, leaf);
+        return Flora.leafVariantAt(cellX(cell), cellY(cell));
+    }
+
+    /**
+     * @param leaf The leaf index.
+     * @return The delay before the leaf starts swaying in the wind.
+     */
+    public float leafDelay(int leaf) {
+        int cell = cellOf(leafMask, leaf);
+        return Flora.leafDelayAt(cellX(cell), cellY(cell), seed);
+    }
+
+    /**
+     * @return The number of fruit slots in the crown.
+     */
+    public int fruitCount() {
+        return Integer.bitCount(fruitMask);
+    }
+
+    /**
+     * @param fruit The fruit slot index.
+     * @return The top-left corner of the fruit slot.
+     */
+    public Vector2 fruitPosition(int fruit) {
+        int cell = cellOf(fruitMask, fruit);
+        return new Vector2(cellX(cell), cellY(cell));
+    }
+
+    /**
+     * @param fruit The fruit slot index.
+     * @return The color of the fruit.
+     */
+    public Color fruitColor(int fruit) {
+        return Flora.fruitColor((orangeFruitMask & (1 << cellOf(fruitMask, fruit))) != 0);
+    }
+
+    /**
+     * @param cell A cell of the crown.
+     * @return The x-coordinate of the cell's left edge.
+     */
+    private int cellX(int cell) {
+        return crownLeftX + (cell % crownSize) * Flora.CELL_SIZE;
+    }
+
+    /**
+     * @param cell A cell of the crown.
+     * @return The y-coordinate of the cell's top edge.
+     */
+    private int cellY(int cell) {
+        return crownTopY + (cell / crownSize) * Flora.CELL_SIZE;
+    }
+
+    /**
+     * Returns the cell of the index-th set bit of a mask.
+     * @param mask The cells.
+     * @param index The index among the set cells, in row-major order.
+     * @return The cell.
+     */
+    private static int cellOf(int mask, int index) {
+        for (int i = 0; i < index; i++) {
+            mask &= mask - 1;
+        }
+        return Integer.numberOfTrailingZeros(mask);
+    }
+}
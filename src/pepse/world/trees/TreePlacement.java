@@ -0,0 +1,124 @@
+package pepse.world.trees;
+
+import pepse.util.RandomSequence;
+import pepse.world.Block;
+
+/**
+ * Decides which terrain columns have a tree. Whether a column has one depends only on the seed
+ * and the column's x-coordinate, through a stateless hash compared with the tree probability, so
+ * any chunk, on any thread, agrees with its neighbours about the trees near their shared edge,
+ * and no query allocates anything.
+ * The test draws the same value {@code new Random(Objects.hash(x, seed)).nextFloat()} did, so
+ * trees stand where they always stood for a given seed.
+ */
+public class TreePlacement {
+    /** Returned by the searches when no tree column was found. */
+    public static final int NO_TREE = Integer.MIN_VALUE;
+    private static final float HALF = 2f;
+
+    private final int seed;
+    private final float treeProbability;
+
+    /**
+     * Constructs a tree placement.
+     * @param seed The world seed.
+     * @param treeProbability The probability of a tree standing at a column.
+     */
+    public TreePlacement(int seed, float treeProbability) {
+        this.seed = seed;
+        this.treeProbability = treeProbability;
+    }
+
+    /**
+     * @param x The x-coordinate of a column's left edge, a multiple of the block size.
+     * @return Whether a tree stands at the column.
+     */
+    public boolean isTreeAt(int x) {
+        return RandomSequence.firstFloat(RandomSequence.hash(x, seed)) < treeProbability;
+    }
+
+    /**
+     * Returns the first tree column at or to the right of x, before a limit.
+     * @param fromX The x-coordinate to start at; rounded up to a column.
+     * @param limitX The exclusive end of the search.
+     * @return The tree column's x-coordinate, or {@link #NO_TREE}.
+     */
+    public int nextTreeX(int fromX, int limitX) {
+        for (int x = ceilToColumn(fromX); x < limitX; x += Block.SIZE) {
+            if (isTreeAt(x)) {
+                return x;
+            }
+        }
+        return NO_TREE;
+    }
+
+    /**
+     * Returns the first tree column at or to the left of x, after a limit.
+     * @param fromX The x-coordinate to start at; rounded down to a column.
+     * @param limitX The exclusive end of the search.
+     * @return The tree column's x-coordinate, or {@link #NO_TREE}.
+     */
+    public int previousTreeX(int fromX, int limitX) {
+        for (int x = floorToColumn(fromX); x > limitX; x -= Block.SIZE) {
+            if (isTreeAt(x)) {
+                return x;
+            }
+        }
+        return NO_TREE;
+    }
+
+    /**
+     * Returns the tree column nearest to x, looking at most a given distance away on each side.
+     * Trees are compared by the distance from x to their trunk's center, so when x lies in the
+     * right half of its column, a tree to the right can beat one as many columns to the left.
+     * Ties go to the tree whose column is nearer to the column containing x, then to the left one.
+     * @param x The x-coordinate.
+     * @param maxDistance How far from the column containing x to look, in pixels.
+     * @return The nearest tree column's x-coordinate, or {@link #NO_TREE}.
+     */
+    public int nearestTreeX(float x, int maxDistance) {
+        int column = floorToColumn((int) Math.floor(x));
+        // a tree a column further out is never nearer than one at a smaller column distance, so
+        // the search can stop at the first distance that has a tree
+        for (int distance = 0; distance <= maxDistance; distance += Block.SIZE) {
+            boolean left = isTreeAt(column - distance);
+            boolean right = distance > 0 && isTreeAt(column + distance);
+            if (left && right) {
+                return trunkDistance(column + distance, x) < trunkDistance(column - distance, x)
+                        ? column + distance : column - distance;
+            }
+            if (left) {
+                return column - distance;
+            }
+            if (right) {
+                return column + distance;
+            }
+        }
+        return NO_TREE;
+    }
+
+    /**
+     * @param treeX A tree column's x-coordinate.
+     * @param x An x-coordinate.
+     * @return The distance from x to the center of the tree's trunk.
+     */
+    private static float trunkDistance(int treeX, float x) {
+        return Math.abs(treeX + Block.SIZE / HALF - x);
+    }
+
+    /**
+     * @param x An x-coordinate.
+     * @return The left edge of the column containing x.
+     */
+    private static int floorToColumn(int x) {
+        return Math.floorDiv(x, Block.SIZE) * Block.SIZE;
+    }
+
+    /**
+     * @param x An x-coordinate.
+     * @return The left edge of the first column starting at or after x.
+     */
+    private static int ceilToColumn(int x) {
+        return -Math.floorDiv(-x, Block.SIZE) * Block.SIZE;
+    }
+}
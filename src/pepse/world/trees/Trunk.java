@@ -4,6 +4,7 @@ package pepse.world.trees;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
 import pepse.world.Block;
+import pepse.world.WorldObjectPool;
 
 
 /**
@@ -11,7 +12,7 @@ import pepse.world.Block;
  * It's a static, immovable object that the avatar should collide with.
  */
 public class Trunk {
-    private static final String TRUNK_TAG = "trunk";
+    static final String TRUNK_TAG = "trunk";
 
     /**
      * Constructs a new Trunk object.
@@ -21,7 +22,20 @@ public class Trunk {
      */
 
     public static Block create(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable) {
-        Block block = new Block(topLeftCorner, renderable);
+        return create(topLeftCorner, dimensions, renderable, null);
+    }
+
+    /**
+     * Constructs a Trunk object, reusing a pooled block when one is free.
+     * @param topLeftCorner The top-left position of the trunk.
+     * @param dimensions The dimensions of the trunk.
+     * @param renderable The visual representation of the trunk.
+     * @param pool The pool to take the block from, or null to create a new one.
+     */
+    public static Block create(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable,
+                               WorldObjectPool pool) {
+        Block block = pool == null ? new Block(topLeftCorner, renderable)
+                : pool.acquireBlock(WorldObjectPool.Kind.TRUNK, topLeftCorner, renderable);
         block.setDimensions(dimensions);
         block.setTopLeftCorner(topLeftCorner);
         block.setTag(TRUNK_TAG);
@@ -0,0 +1,189 @@
+package pepse.world.trees;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+import pepse.world.Block;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Sways the leaves of all trees from a single clock, instead of giving every leaf its own
+ * transitions. A leaf's angle and width factor are computed directly from the time and the leaf's
+ * delay, following the same back-and-forth cubic easing the transitions used.
+ * Leaves are kept in one group per chunk, and each frame only the groups that overlap the
+ * camera's view are updated, in a single pass; off-screen leaves keep their last pose until they
+ * come back into view, where they pick up the current phase.
+ * Widths are quantized to a few precomputed dimensions, so swaying allocates nothing.
+ */
+public class WindField {
+    private static final float MIN_ANGLE = -5f;
+    private static final float MAX_ANGLE = 5f;
+    private static final float MIN_WIDTH_FACTOR = 0.9f;
+    private static final float MAX_WIDTH_FACTOR = 1.1f;
+    private static final float TRANSITION_TIME = 2f;
+    private static final int WIDTH_STEPS = 9;
+    private static final int INITIAL_GROUP_CAPACITY = 64;
+    private static final Vector2[] LEAF_DIMENSIONS = leafDimensions();
+
+    private final List<LeafGroup> groups = new ArrayList<>();
+    private final ArrayDeque<LeafGroup> freeGroups = new ArrayDeque<>();
+    private float time = 0;
+    private int updatedLeaves = 0;
+
+    /**
+     * Returns an empty group for the leaves of a chunk.
+     * @param chunkId the chunk.
+     * @return the chunk's leaf group.
+     */
+    public LeafGroup openGroup(int chunkId) {
+        LeafGroup group = freeGroups.isEmpty() ? new LeafGroup() : freeGroups.pop();
+        group.chunkId = chunkId;
+        groups.add(group);
+        return group;
+    }
+
+    /**
+     * Stops swaying the leaves of a chunk, e.g. when the chunk is evicted.
+     * @param chunkId the chunk.
+     */
+    public void closeGroup(int chunkId) {
+        for (int i = 0; i < groups.size(); i++) {
+            LeafGroup group = groups.get(i);
+            if (group.chunkId == chunkId) {
+                int last = groups.size() - 1;
+                groups.set(i, groups.get(last));
+                groups.remove(last);
+                group.clear();
+                freeGroups.push(group);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Advances the wind and sways the leaves of the groups overlapping the given range.
+     * @param deltaTime the time since the last frame.
+     * @param minX the left edge of the camera's view.
+     * @param maxX the right edge of the camera's view.
+     */
+    public void update(float deltaTime, float minX, float maxX) {
+        time += deltaTime;
+        updatedLeaves = 0;
+        for (int i = 0; i < groups.size(); i++) {
+            LeafGroup group = groups.get(i);
+            if (group.maxX >= minX && group.minX <= maxX) {
+                group.sway(time);
+                updatedLeaves += group.size;
+            }
+        }
+    }
+
+    /**
+     * @return the number of leaves swayed by the wind.
+     */
+    public int leafCount() {
+        int count = 0;
+        for (int i = 0; i < groups.size(); i++) {
+            count += groups.get(i).size;
+        }
+        return count;
+    }
+
+    /**
+     * @return the number of leaves updated in the last frame.
+     */
+    public int updatedLeaves() {
+        return updatedLeaves;
+    }
+
+    /**
+     * Returns the sway of a leaf: 0 at the start of its movement, 1 at the other end.
+     * @param t the time since the leaf started swaying.
+     * @return the eased position in the back-and-forth movement, in [0,1].
+     */
+    private static float swayAt(float t) {
+        float u = (t % (2 * TRANSITION_TIME)) / TRANSITION_TIME;
+        float s = u <= 1 ? u : 2 - u;
+        return s * s * (3 - 2 * s);
+    }
+
+    /**
+     * @return the leaf dimensions for every width step.
+     */
+    private static Vector2[] leafDimensions() {
+        Vector2[] dimensions = new Vector2[WIDTH_STEPS];
+        for (int step = 0; step < WIDTH_STEPS; step++) {
+            float factor = MIN_WIDTH_FACTOR
+                    + (MAX_WIDTH_FACTOR - MIN_WIDTH_FACTOR) * step / (WIDTH_STEPS - 1);
+            dimensions[step] = new Vector2(Block.SIZE * factor, Block.SIZE);
+        }
+        return dimensions;
+    }
+
+    /**
+     * The one-block leaves of a single chunk, with the delay of each leaf's sway.
+     */
+    public static final class LeafGroup {
+        private GameObject[] leaves = new GameObject[INITIAL_GROUP_CAPACITY];
+        private float[] delays = new float[INITIAL_GROUP_CAPACITY];
+        private int[] widthSteps = new int[INITIAL_GROUP_CAPACITY];
+        private int size = 0;
+        private int chunkId;
+        private float minX = Float.MAX_VALUE;
+        private float maxX = -Float.MAX_VALUE;
+
+        /**
+         * Adds a leaf to the group.
+         * @param leaf the leaf, one block in size.
+         * @param delay the time after which the leaf starts swaying, see {@link Leaf#initialDelay}.
+         */
+        public void add(GameObject leaf, float delay) {
+            if (size == leaves.length) {
+                leaves = Arrays.copyOf(leaves, size * 2);
+                delays = Arrays.copyOf(delays, size * 2);
+                widthSteps = Arrays.copyOf(widthSteps, size * 2);
+            }
+            leaves[size] = leaf;
+            delays[size] = delay;
+            widthSteps[size] = -1;
+            size++;
+            float x = leaf.getTopLeftCorner().x();
+            minX = Math.min(minX, x);
+            maxX = Math.max(maxX, x + Block.SIZE * MAX_WIDTH_FACTOR);
+        }
+
+        /**
+         * Sets every leaf's angle and width for the given time.
+         * @param time the wind's time.
+         */
+        private void sway(float time) {
+            for (int i = 0; i < size; i++) {
+                float t = time - delays[i];
+                if (t < 0) {
+                    continue;
+                }
+                float sway = swayAt(t);
+                GameObject leaf = leaves[i];
+                leaf.renderer().setRenderableAngle(MIN_ANGLE + (MAX_ANGLE - MIN_ANGLE) * sway);
+                int step = Math.round(sway * (WIDTH_STEPS - 1));
+                if (step != widthSteps[i]) {
+                    widthSteps[i] = step;
+                    leaf.setDimensions(LEAF_DIMENSIONS[step]);
+                }
+            }
+        }
+
+        /**
+         * Empties the group for reuse.
+         */
+        private void clear() {
+            Arrays.fill(leaves, 0, size, null);
+            size = 0;
+            minX = Float.MAX_VALUE;
+            maxX = -Float.MAX_VALUE;
+        }
+    }
+}